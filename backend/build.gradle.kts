@@ -51,9 +51,19 @@ dependencies {
 	annotationProcessor("org.projectlombok:lombok")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+	testImplementation("org.testcontainers:junit-jupiter")
+	testImplementation("org.testcontainers:postgresql")
 
 	// FIXED: Remove version from starter dependencies - let Spring Boot manage versions
 	implementation("org.springframework.boot:spring-boot-starter-websocket")
+	// TCP client of the STOMP broker relay (websocket.broker=relay)
+	implementation("io.projectreactor.netty:reactor-netty")
+	// Embedded STOMP broker for tests and local runs of the relay mode, see EmbeddedStompBroker
+	compileOnly("org.apache.activemq:artemis-server")
+	developmentOnly("org.apache.activemq:artemis-server")
+	developmentOnly("org.apache.activemq:artemis-stomp-protocol")
+	testImplementation("org.apache.activemq:artemis-server")
+	testImplementation("org.apache.activemq:artemis-stomp-protocol")
 
 	// Fake user - FIXED: Exclude problematic transitive dependencies
 	implementation("com.github.javafaker:javafaker:1.0.1") {
@@ -87,3 +97,25 @@ dependencies {
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// Measurements tagged "benchmark" (see com.Backend.support.Benchmark) stay out of the regular test run,
+// they take long and their numbers depend on the machine. Run them with ./gradlew benchmark
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+tasks.register<Test>("benchmark") {
+	description = "Runs the benchmarks and prints their measurements."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
+	outputs.upToDateWhen { false }
+}
@@ -2,7 +2,7 @@ package com.Backend.configuration;
 
 import com.Backend.features.authentication.model.User;
 import com.Backend.features.authentication.repository.UserRepository;
-import com.Backend.features.authentication.utils.Encoder;
+import com.Backend.features.authentication.utils.password.PasswordHasher;
 import com.Backend.features.quizes.entity.Question;
 import com.Backend.features.quizes.entity.Quiz;
 import com.Backend.features.quizes.repository.QuestionRepository;
@@ -20,13 +20,13 @@ import java.util.*;
 @Configuration
 public class BackendConfiguration {
 
-    private final Encoder encoder;
+    private final PasswordHasher passwordHasher;
     private final QuizRepository quizRepository;
     private final QuestionRepository questionRepository;
     private static final Logger log = LoggerFactory.getLogger(BackendConfiguration.class);
 
-    public BackendConfiguration(Encoder encoder, QuizRepository quizRepository, QuestionRepository questionRepository) {
-        this.encoder = encoder;
+    public BackendConfiguration(PasswordHasher passwordHasher, QuizRepository quizRepository, QuestionRepository questionRepository) {
+        this.passwordHasher = passwordHasher;
         this.quizRepository = quizRepository;
         this.questionRepository = questionRepository;
     }
@@ -44,7 +44,7 @@ public class BackendConfiguration {
                 String email = (firstName + "." + lastName + i + "@mail.com").toLowerCase();
 
                 if (userRepository.findByEmail(email).isEmpty()) {
-                    User user = new User(email, encoder.encode("user123"));
+                    User user = new User(email, passwordHasher.hash("user123"));
                     user.setFirstName(firstName);
                     user.setLastName(lastName);
                     user.setEmailVerified(true);
@@ -11,10 +11,12 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.nio.file.NoSuchFileException;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 // 📌 Applies to all REST controllers
 @ControllerAdvice
 
@@ -120,7 +122,28 @@ BackendController {
     }
 
     /**
-     * 🧩 CASE 8: Catch-all fallback
+     * 🧩 CASE 8: Upload over spring.servlet.multipart limits
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<Map<String, String>> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException e) {
+        return ResponseEntity.badRequest().body(
+                Map.of("message", "File is too large")
+        );
+    }
+
+    /**
+     * 🧩 CASE 9: Server busy
+     * Example: Password hashing queue is full during a login storm
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleRejectedExecutionException(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                Map.of("message", "Server is busy, please try again.")
+        );
+    }
+
+    /**
+     * 🧩 CASE 10: Catch-all fallback
      * Any unhandled exceptions will land here
      */
     @ExceptionHandler(Exception.class)
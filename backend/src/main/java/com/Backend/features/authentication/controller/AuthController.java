@@ -4,6 +4,7 @@ package com.Backend.features.authentication.controller;
 import com.Backend.features.authentication.dto.AuthOauthRequest;
 import com.Backend.features.authentication.dto.AuthRequest;
 import com.Backend.features.authentication.dto.AuthResponse;
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
 import com.Backend.features.authentication.model.User;
 import com.Backend.features.authentication.service.AuthService;
 import jakarta.validation.Valid;
@@ -40,20 +41,20 @@ public class AuthController {
     }
 
     @DeleteMapping("/delete")
-    public String deleteUser(@RequestAttribute("authenticatedUser")User user){
-        authService.deleteUser(user.getId());
+    public String deleteUser(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal){
+        authService.deleteUser(principal.id());
         return "User deleted Successfully";
     }
 
     @PutMapping("/validate-email-verification-token")
-    public String verifyEmail(@RequestParam String token, @RequestAttribute("authenticatedUser") User user){
-        authService.validateEmailVerificationToken(token ,user.getEmail());
+    public String verifyEmail(@RequestParam String token, @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal){
+        authService.validateEmailVerificationToken(token ,principal.email());
         return "Email verified";
     }
 
     @GetMapping("/send-email-verification-token")
-    public String sendEmailVerificationToken(@RequestAttribute("authenticatedUser") User user){
-        authService.sendEmailVerificationToken(user.getEmail());
+    public String sendEmailVerificationToken(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal){
+        authService.sendEmailVerificationToken(principal.email());
         return "Email verification token sent successfully.";
     }
     @PutMapping("/send-password-reset-token")
@@ -0,0 +1,8 @@
+package com.Backend.features.authentication.dto;
+
+/**
+ * Who a verified bearer token belongs to. Immutable, so it can be cached and shared between requests, unlike the
+ * {@code User} entity which is loaded per request by the handlers that need it.
+ */
+public record AuthenticatedPrincipal(Long id, String email, long tokenExpiresAt) {
+}
@@ -0,0 +1,17 @@
+package com.Backend.features.authentication.dto;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.storage.model.ImageVariants;
+
+/**
+ * The few user fields needed to render an avatar and a name, instead of the full {@code User} entity.
+ */
+public record UserCard(Long id, String firstName, String lastName, String profilePicture) {
+
+    // Avatars are small, prefer the thumbnail when the picture was uploaded with variants
+    public static UserCard of(User user) {
+        ImageVariants variants = user.getProfilePictureVariants();
+        String profilePicture = variants != null && variants.getThumbnailUrl() != null ? variants.getThumbnailUrl() : user.getProfilePicture();
+        return new UserCard(user.getId(), user.getFirstName(), user.getLastName(), profilePicture);
+    }
+}
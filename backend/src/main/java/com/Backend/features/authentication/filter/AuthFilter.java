@@ -1,12 +1,16 @@
 package com.Backend.features.authentication.filter;
 
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
 import com.Backend.features.authentication.model.User;
 import com.Backend.features.authentication.service.AuthService;
+import com.Backend.features.authentication.service.PrincipalCache;
 import com.Backend.features.authentication.utils.JsonWebToken;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpFilter;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Component;
 
@@ -26,10 +30,12 @@ public class AuthFilter extends HttpFilter {
 
     private final JsonWebToken jsonWebToken;
     private final AuthService authService;
+    private final PrincipalCache principalCache;
 
-    public AuthFilter(JsonWebToken jsonWebToken, AuthService authService) {
+    public AuthFilter(JsonWebToken jsonWebToken, AuthService authService, PrincipalCache principalCache) {
         this.jsonWebToken = jsonWebToken;
         this.authService = authService;
+        this.principalCache = principalCache;
     }
 
 
@@ -74,15 +80,17 @@ public class AuthFilter extends HttpFilter {
             }
 
             String token = authorization.substring(7);
-            if (jsonWebToken.isTokenExpired(token)) {
-                throw new ServletException("Token Expired");
+            AuthenticatedPrincipal principal = principalCache.get(token);
+            if (principal == null) {
+                // Throws when the signature is invalid or the token expired
+                Claims claims = jsonWebToken.parseToken(token);
+                User user = authService.getUser(claims.getSubject());
+                principal = new AuthenticatedPrincipal(user.getId(), user.getEmail(), claims.getExpiration().getTime());
+                principalCache.put(token, principal);
             }
+            request.setAttribute("authenticatedPrincipal", principal);
 
-            String email = jsonWebToken.getEmailFromToken(token);
-            User user = authService.getUser(email);
-            request.setAttribute("authenticatedUser", user);
-
-            chain.doFilter(request, response);
+            chain.doFilter(new AuthenticatedRequest(request, principal, authService), response);
 
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -90,4 +98,30 @@ public class AuthFilter extends HttpFilter {
             response.getWriter().write("{\"message\": \"Invalid authentication token, or token missing.\"}");
         }
     }
+
+    /**
+     * Loads the authenticated user on the first read of the {@code authenticatedUser} attribute, so every request that
+     * works with the entity gets its own, current copy, and requests that only need the principal skip the query.
+     */
+    private static class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+        private final AuthenticatedPrincipal principal;
+        private final AuthService authService;
+
+        AuthenticatedRequest(HttpServletRequest request, AuthenticatedPrincipal principal, AuthService authService) {
+            super(request);
+            this.principal = principal;
+            this.authService = authService;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            Object value = super.getAttribute(name);
+            if (value == null && "authenticatedUser".equals(name)) {
+                value = authService.getUserById(principal.id());
+                super.setAttribute(name, value);
+            }
+            return value;
+        }
+    }
 }
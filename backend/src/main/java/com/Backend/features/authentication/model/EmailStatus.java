@@ -0,0 +1,7 @@
+package com.Backend.features.authentication.model;
+
+public enum EmailStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -4,6 +4,7 @@ package com.Backend.features.authentication.model;
 import com.Backend.features.feed.model.Post;
 import com.Backend.features.messages.model.Conversation;
 import com.Backend.features.network.model.Connection;
+import com.Backend.features.storage.model.ImageVariants;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -32,6 +33,8 @@ public class User {
     @FullTextField(analyzer = "standard")
     private String lastName=null;
     private String ProfilePicture=null;
+    @Embedded
+    private ImageVariants profilePictureVariants;
     private Boolean profileComplete=false;
     @FullTextField(analyzer = "standard")
     @ElementCollection(fetch = FetchType.EAGER)
@@ -180,6 +183,14 @@ public class User {
         ProfilePicture = profilePicture;
     }
 
+    public ImageVariants getProfilePictureVariants() {
+        return profilePictureVariants;
+    }
+
+    public void setProfilePictureVariants(ImageVariants profilePictureVariants) {
+        this.profilePictureVariants = profilePictureVariants;
+    }
+
     public Boolean getProfileComplete() {
         return profileComplete;
     }
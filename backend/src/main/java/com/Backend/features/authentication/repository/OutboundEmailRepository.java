@@ -0,0 +1,9 @@
+package com.Backend.features.authentication.repository;
+
+import com.Backend.features.authentication.model.OutboundEmail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+}
@@ -1,9 +1,12 @@
 package com.Backend.features.authentication.repository;
 
+import com.Backend.features.authentication.dto.UserCard;
 import com.Backend.features.authentication.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,10 +17,27 @@ public interface UserRepository extends JpaRepository<User ,Long> {
      Optional<User> findByEmail(String email);
 
 
-    List<User> findAllByIdNot(Long userId);
-
     List<User> findAllByOrderByPointsDesc();
 
+    @Query("SELECT u.id FROM User u WHERE u.id <> :userId AND u.profileComplete = true ORDER BY u.points DESC")
+    List<Long> findCompleteProfileIdsExcept(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+        SELECT new com.Backend.features.authentication.dto.UserCard(u.id, u.firstName, u.lastName, COALESCE(u.profilePictureVariants.thumbnailUrl, u.ProfilePicture))
+          FROM User u
+         WHERE u.id > :afterId
+           AND u.id <> :userId
+           AND NOT EXISTS (SELECT 1 FROM connections c
+                            WHERE (c.author.id = :userId AND c.recipient.id = u.id)
+                               OR (c.recipient.id = :userId AND c.author.id = u.id))
+         ORDER BY u.id
+    """)
+    List<UserCard> findUnconnectedUserCards(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.points = u.points + :points, u.asks = u.asks - :asks WHERE u.id = :userId")
+    void addPointsAndSpendAsks(@Param("userId") Long userId, @Param("points") int points, @Param("asks") int asks);
 
     @Modifying
     @Query("UPDATE User u SET u.asks = u.asks + 2")
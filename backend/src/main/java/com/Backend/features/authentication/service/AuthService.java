@@ -8,6 +8,10 @@ import com.Backend.features.authentication.repository.UserRepository;
 import com.Backend.features.authentication.utils.EmailService;
 import com.Backend.features.authentication.utils.Encoder;
 import com.Backend.features.authentication.utils.JsonWebToken;
+import com.Backend.features.authentication.utils.password.PasswordHasher;
+import com.Backend.features.network.service.RecommendationService;
+import com.Backend.features.network.service.SocialGraphIndex;
+import com.Backend.features.storage.model.ImageVariants;
 import com.Backend.features.storage.service.StorageService;
 import io.jsonwebtoken.Claims;
 
@@ -43,10 +47,14 @@ public class AuthService {
     private final UserRepository userRepository;
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
     private final Encoder encoder;
+    private final PasswordHasher passwordHasher;
     private final JsonWebToken jsonWebToken;
     private final EmailService emailService;
     private final RestTemplate restTemplate;
    private final StorageService storageService;
+    private final SocialGraphIndex socialGraphIndex;
+    private final RecommendationService recommendationService;
+    private final PrincipalCache principalCache;
 
 
     @PersistenceContext
@@ -57,21 +65,30 @@ public class AuthService {
     private String googleClientSecret;
 
 
-    public AuthService(UserRepository userRepository, Encoder encoder, JsonWebToken jsonWebToken, EmailService emailService, RestTemplate restTemplate, StorageService storageService) {
+    public AuthService(UserRepository userRepository, Encoder encoder, PasswordHasher passwordHasher, JsonWebToken jsonWebToken, EmailService emailService, RestTemplate restTemplate, StorageService storageService, SocialGraphIndex socialGraphIndex, RecommendationService recommendationService, PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.encoder = encoder;
+        this.passwordHasher = passwordHasher;
         this.jsonWebToken = jsonWebToken;
         this.emailService = emailService;
         this.restTemplate = restTemplate;
         this.storageService = storageService;
+        this.socialGraphIndex = socialGraphIndex;
+        this.recommendationService = recommendationService;
+        this.principalCache = principalCache;
     }
 
 
     public AuthResponse login(@Valid AuthRequest loginRequest) {
         User user = userRepository.findByEmail(loginRequest.email()).orElseThrow(() -> new IllegalArgumentException("User not found."));
-        if(!encoder.matches(loginRequest.password() , user.getPassword())){
+        if(!passwordHasher.matches(loginRequest.password() , user.getPassword())){
             throw new IllegalArgumentException("Password is incorrect.");
         }
+        // Upgrade hashes made with an older algorithm or weaker parameters while we have the raw password
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHasher.hash(loginRequest.password()));
+            userRepository.save(user);
+        }
         String token = jsonWebToken.generateToken(loginRequest.email());
         return new AuthResponse(token, "Authentication succeeded.");
     }
@@ -80,7 +97,7 @@ public class AuthService {
         User user = userRepository.save(
                 new User(
                         registerRequest.email(),
-                        encoder.encode(registerRequest.password())));
+                        passwordHasher.hash(registerRequest.password())));
         String emailVerificationToken = generateEmailVerificationToken();
         String hashedToken = encoder.encode(emailVerificationToken);
         user.setEmailVerificationToken(hashedToken);
@@ -164,10 +181,16 @@ public class AuthService {
     public void deleteUser(Long id) {
         User user = entityManager.find(User.class ,id);
         if(user != null){
+            entityManager.createNativeQuery("UPDATE posts SET like_count = like_count - 1 WHERE id IN (SELECT post_id FROM posts_likes WHERE user_id = :id)")
+                    .setParameter("id",id)
+                    .executeUpdate();
             entityManager.createNativeQuery("DELETE FROM posts_likes WHERE user_id = :id")
                     .setParameter("id",id)
                     .executeUpdate();
             entityManager.remove(user);
+            principalCache.invalidate(id);
+            recommendationService.userDeleted(id);
+            socialGraphIndex.userDeleted(id);
         }
 
     }
@@ -278,7 +301,7 @@ public class AuthService {
             user.get().setPasswordResetToken(null);
             user.get().setPasswordResetTokenExpiryDate(null);
             // 🔐 Set new password (after hashing)
-            user.get().setPassword(encoder.encode(newPassword));
+            user.get().setPassword(passwordHasher.hash(newPassword));
 
             // 💾 Save user
             userRepository.save(user.get());
@@ -305,20 +328,26 @@ public class AuthService {
         if(bio != null)
             user.setBio(bio);
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        recommendationService.profileChanged(savedUser.getId());
+        return savedUser;
     }
 
+    // The previous picture is released once the user no longer points at it, whether it was replaced or removed
     public User updateProfilePicture(User user, MultipartFile profilePicture) throws IOException {
+        ImageVariants previousVariants = user.getProfilePictureVariants();
+        String previousPicture = user.getProfilePicture();
         if (profilePicture != null) {
-            String profilePictureUrl = storageService.saveImage(profilePicture);
-            user.setProfilePicture(profilePictureUrl);
+            ImageVariants profilePictureVariants = storageService.saveImageVariants(profilePicture);
+            user.setProfilePicture(profilePictureVariants.getFullUrl());
+            user.setProfilePictureVariants(profilePictureVariants);
         } else {
-            if (user.getProfilePicture() != null)
-                storageService.deleteFile(user.getProfilePicture());
-
             user.setProfilePicture(null);
+            user.setProfilePictureVariants(null);
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        storageService.releaseAfterCommit(previousVariants, previousPicture);
+        return savedUser;
     }
 
     public User getUserById(Long id) {
@@ -334,11 +363,11 @@ public class AuthService {
         return userRepository.findAllByOrderByPointsDesc();
     }
 
+    // A single UPDATE, so concurrent requests add up instead of saving back each other's stale totals
+    @Transactional
     public User updatePoints(User user, Integer points, Integer asks) {
-
-        user.setPoints(user.getPoints() + points);
-        user.setAsks(user.getAsks() - asks);                           // ✅ set points properly
-        return userRepository.save(user);             // ✅ return updated user
+        userRepository.addPointsAndSpendAsks(user.getId(), points == null ? 0 : points, asks == null ? 0 : asks);
+        return getUserById(user.getId());
     }
 
 
@@ -0,0 +1,81 @@
+package com.Backend.features.authentication.service;
+
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Principals by verified bearer token, so AuthFilter neither re-verifies the token nor looks the user up by email on
+ * every request. Only the immutable principal is cached, never the {@code User} entity: a shared entity would be
+ * mutated by concurrent requests and saved back stale. Tokens are keyed by their SHA-256 so raw tokens are never
+ * retained. Entries live until the token expires or {@code auth.principal-cache.ttl}, whichever comes first.
+ */
+@Component
+public class PrincipalCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    public PrincipalCache(@Value("${auth.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${auth.principal-cache.ttl:PT1M}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public AuthenticatedPrincipal get(String token) {
+        String key = hash(token);
+        CachedPrincipal cached = principals.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt() <= System.currentTimeMillis()) {
+            principals.remove(key, cached);
+            return null;
+        }
+        return cached.principal();
+    }
+
+    public void put(String token, AuthenticatedPrincipal principal) {
+        long now = System.currentTimeMillis();
+        principals.put(hash(token), new CachedPrincipal(principal, Math.min(principal.tokenExpiresAt(), now + ttlMillis)));
+        if (principals.size() > maxSize) {
+            evict(now);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        principals.values().removeIf(cached -> cached.principal().id().equals(userId));
+    }
+
+    // Expired entries go first; if that is not enough, arbitrary ones do, a miss only costs one token verification
+    private void evict(long now) {
+        principals.values().removeIf(cached -> cached.expiresAt() <= now);
+        Iterator<CachedPrincipal> iterator = principals.values().iterator();
+        while (principals.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedPrincipal(AuthenticatedPrincipal principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.Backend.features.authentication.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts queued email bodies with AES-256-GCM, they carry verification and password reset codes that must not
+ * sit in the database in the clear. The key is the SHA-256 of {@code mail.outbox.encryption-key}, set through
+ * {@code MAIL_OUTBOX_KEY}. Without a key bodies are stored as they are, so deployments that predate the setting keep
+ * starting. Encrypted bodies are tagged {@code v1:}; untagged bodies are read as they are.
+ */
+@Component
+public class EmailBodyCipher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailBodyCipher.class);
+    private static final String PREFIX = "v1:";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKey key;
+
+    public EmailBodyCipher(@Value("${mail.outbox.encryption-key:}") String secret) {
+        if (secret.isBlank()) {
+            log.warn("MAIL_OUTBOX_KEY is not set, queued email bodies are stored unencrypted");
+            this.key = null;
+            return;
+        }
+        if (secret.length() < 32) {
+            throw new IllegalArgumentException("MAIL_OUTBOX_KEY (mail.outbox.encryption-key) must be at least 32 characters long, or left unset to store email bodies unencrypted");
+        }
+        try {
+            byte[] keyBytes = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            this.key = new SecretKeySpec(keyBytes, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public String encrypt(String body) {
+        if (key == null) {
+            return body;
+        }
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(body.getBytes(StandardCharsets.UTF_8));
+            return PREFIX + Base64.getEncoder().encodeToString(ByteBuffer.allocate(IV_BYTES + encrypted.length).put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt email body", e);
+        }
+    }
+
+    public String decrypt(String stored) {
+        if (!stored.startsWith(PREFIX)) {
+            return stored;
+        }
+        if (key == null) {
+            throw new IllegalStateException("Email body is encrypted but MAIL_OUTBOX_KEY is not set");
+        }
+        byte[] bytes = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, bytes, 0, IV_BYTES));
+            return new String(cipher.doFinal(bytes, IV_BYTES, bytes.length - IV_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to decrypt email body", e);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.Backend.features.authentication.utils;
+
+import com.Backend.features.authentication.model.EmailStatus;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UnsupportedEncodingException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the email_outbox. Each poll claims a batch of due emails with SKIP LOCKED (so several nodes can run
+ * this), groups them by recipient domain, and sends each group over a single SMTP connection on the worker pool.
+ * Polls only claim while a worker is free and never wait for the sends, the shared scheduler thread is not held up
+ * by SMTP. Failures are retried with exponential backoff until {@code mail.outbox.max-attempts}, and each domain
+ * gets at most {@code mail.outbox.per-domain-per-minute} emails, the rest wait for the next minute. Delivered and
+ * abandoned emails are purged after {@code mail.outbox.retention}.
+ * <p>
+ * The lease on claimed rows is derived from the batch size and the SMTP timeouts, see {@link #leaseFor}.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxWorker.class);
+    private static final long BASE_BACKOFF_SECONDS = 30;
+    private static final long MAX_BACKOFF_SECONDS = 60 * 60;
+
+    // Claimed rows are leased: if this node dies before recording the outcome they become due again
+    private static final String CLAIM = """
+            UPDATE email_outbox SET next_attempt_at = ?
+             WHERE id IN (SELECT id FROM email_outbox
+                           WHERE status = ? AND next_attempt_at <= ?
+                           ORDER BY next_attempt_at
+                           LIMIT ?
+                           FOR UPDATE SKIP LOCKED)
+            RETURNING id, recipient, domain, subject, body, attempts
+            """;
+    private static final String MARK_SENT = "UPDATE email_outbox SET status = ?, sent_at = ?, last_error = NULL WHERE id = ?";
+    private static final String MARK_FAILED = "UPDATE email_outbox SET status = ?, attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+    private static final String DEFER = "UPDATE email_outbox SET next_attempt_at = ? WHERE id = ?";
+    // In chunks, so a large backlog of old rows doesn't turn into one long delete
+    private static final String PURGE = """
+            DELETE FROM email_outbox
+             WHERE id IN (SELECT id FROM email_outbox
+                           WHERE (status = ? AND sent_at < ?) OR (status = ? AND creation_date < ?)
+                           LIMIT 10000)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JavaMailSender mailSender;
+    private final EmailBodyCipher emailBodyCipher;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int perDomainPerMinute;
+    private final Duration retention;
+    private final Duration lease;
+    private final Map<String, DomainWindow> domainWindows = new ConcurrentHashMap<>();
+
+    public EmailOutboxWorker(JdbcTemplate jdbcTemplate, JavaMailSender mailSender, EmailBodyCipher emailBodyCipher,
+                             @Value("${mail.outbox.workers:4}") int workerCount,
+                             @Value("${mail.outbox.batch-size:50}") int batchSize,
+                             @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${mail.outbox.per-domain-per-minute:60}") int perDomainPerMinute,
+                             @Value("${mail.outbox.retention:P7D}") Duration retention,
+                             @Value("${spring.mail.properties.mail.smtp.connectiontimeout:5000}") long connectTimeoutMillis,
+                             @Value("${spring.mail.properties.mail.smtp.timeout:10000}") long readTimeoutMillis,
+                             @Value("${spring.mail.properties.mail.smtp.writetimeout:10000}") long writeTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mailSender = mailSender;
+        this.emailBodyCipher = emailBodyCipher;
+        this.workers = Executors.newFixedThreadPool(workerCount, Thread.ofPlatform().name("email-outbox-", 0).factory());
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.perDomainPerMinute = perDomainPerMinute;
+        this.retention = retention;
+        this.lease = leaseFor(batchSize, connectTimeoutMillis, readTimeoutMillis, writeTimeoutMillis);
+        log.info("Email outbox lease is {}", lease);
+    }
+
+    /**
+     * How long a claimed batch may take before another poll may claim it again. A claim is at most {@code batchSize}
+     * emails. In the worst case each one is for its own domain, so each opens its own connection, and they all queue
+     * on one worker. There they wait behind at most one batch, because polls only claim while a worker is free. A
+     * slow email costs one connect, one read and one write timeout. Rate limits add nothing: emails over a domain's
+     * quota are deferred to the next minute, not held.
+     */
+    static Duration leaseFor(int batchSize, long connectTimeoutMillis, long readTimeoutMillis, long writeTimeoutMillis) {
+        long perEmailMillis = connectTimeoutMillis + readTimeoutMillis + writeTimeoutMillis;
+        return Duration.ofMillis(2L * batchSize * perEmailMillis);
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void poll() {
+        List<Email> claimed;
+        do {
+            if (inFlight.get() >= workerCount) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            claimed = jdbcTemplate.query(CLAIM, (rs, rowNum) -> new Email(
+                            rs.getLong("id"), rs.getString("recipient"), rs.getString("domain"),
+                            rs.getString("subject"), rs.getString("body"), rs.getInt("attempts")),
+                    Timestamp.valueOf(now.plus(lease)), EmailStatus.PENDING.ordinal(), Timestamp.valueOf(now), batchSize);
+
+            Map<String, List<Email>> byDomain = new HashMap<>();
+            for (Email email : claimed) {
+                byDomain.computeIfAbsent(email.domain(), domain -> new ArrayList<>()).add(email);
+            }
+
+            for (Map.Entry<String, List<Email>> domainEmails : byDomain.entrySet()) {
+                List<Email> emails = domainEmails.getValue();
+                DomainWindow window = domainWindows.computeIfAbsent(domainEmails.getKey(), domain -> new DomainWindow());
+                int allowed = window.acquire(emails.size(), perDomainPerMinute);
+                if (allowed < emails.size()) {
+                    defer(emails.subList(allowed, emails.size()), window.resetsAt());
+                }
+                if (allowed > 0) {
+                    List<Email> batch = emails.subList(0, allowed);
+                    inFlight.incrementAndGet();
+                    workers.execute(() -> {
+                        try {
+                            send(batch);
+                        } catch (RuntimeException e) {
+                            // The lease runs out and the batch is claimed again
+                            log.error("Email batch failed", e);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+            }
+        } while (claimed.size() == batchSize);
+    }
+
+    @Scheduled(cron = "0 15 4 * * *")
+    public void purge() {
+        Timestamp before = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE, EmailStatus.SENT.ordinal(), before, EmailStatus.FAILED.ordinal(), before);
+            purged += deleted;
+        } while (deleted > 0);
+        if (purged > 0) {
+            log.info("Purged {} delivered or abandoned emails from the outbox", purged);
+        }
+    }
+
+    // One connection for the whole batch, JavaMailSenderImpl reports which messages failed
+    private void send(List<Email> batch) {
+        Map<MimeMessage, Email> messages = new IdentityHashMap<>();
+        Set<Email> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Email email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException | UnsupportedEncodingException | IllegalStateException e) {
+                failed.add(email);
+                failed(email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, cause) -> {
+                Email email = messages.get(message);
+                if (email != null) {
+                    failed.add(email);
+                    failed(email, cause);
+                }
+            });
+            // Connection level failure: no message made it
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(email -> {
+                    failed.add(email);
+                    failed(email, e);
+                });
+            }
+        } catch (MailException e) {
+            messages.values().forEach(email -> {
+                failed.add(email);
+                failed(email, e);
+            });
+        }
+
+        List<Object[]> sent = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Email email : batch) {
+            if (!failed.contains(email)) {
+                sent.add(new Object[]{EmailStatus.SENT.ordinal(), now, email.id()});
+            }
+        }
+        if (!sent.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_SENT, sent);
+        }
+    }
+
+    private MimeMessage toMimeMessage(Email email) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = mailSender.createMimeMessage();
+
+        MimeMessageHelper helper = new MimeMessageHelper(message);
+        helper.setFrom("chandanprajapati6307@gmail.com" , "Speakly");
+        helper.setTo(email.recipient());
+        helper.setSubject(email.subject());
+        helper.setText(emailBodyCipher.decrypt(email.body()) ,true);
+        return message;
+    }
+
+    private void failed(Email email, Exception cause) {
+        int attempts = email.attempts() + 1;
+        EmailStatus status = attempts >= maxAttempts ? EmailStatus.FAILED : EmailStatus.PENDING;
+        long backoffSeconds = Math.min(BASE_BACKOFF_SECONDS << Math.min(attempts - 1, 20), MAX_BACKOFF_SECONDS);
+        jdbcTemplate.update(MARK_FAILED, status.ordinal(), attempts,
+                Timestamp.valueOf(LocalDateTime.now().plusSeconds(backoffSeconds)), String.valueOf(cause.getMessage()), email.id());
+        if (status == EmailStatus.FAILED) {
+            log.warn("Giving up on email {} to {} after {} attempts: {}", email.id(), email.domain(), attempts, cause.getMessage());
+        }
+    }
+
+    private void defer(List<Email> emails, LocalDateTime until) {
+        jdbcTemplate.batchUpdate(DEFER, emails.stream()
+                .map(email -> new Object[]{Timestamp.valueOf(until), email.id()})
+                .toList());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private record Email(Long id, String recipient, String domain, String subject, String body, int attempts) {
+    }
+
+    // Fixed one minute window per domain
+    private static final class DomainWindow {
+        private long windowStart;
+        private int sent;
+
+        synchronized int acquire(int requested, int limit) {
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= 60 * 1000) {
+                windowStart = now;
+                sent = 0;
+            }
+            int granted = Math.max(0, Math.min(requested, limit - sent));
+            sent += granted;
+            return granted;
+        }
+
+        synchronized LocalDateTime resetsAt() {
+            return LocalDateTime.now().plusNanos((windowStart + 60 * 1000 - System.currentTimeMillis()) * 1_000_000);
+        }
+    }
+}
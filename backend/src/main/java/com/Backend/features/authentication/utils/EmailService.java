@@ -1,32 +1,25 @@
 package com.Backend.features.authentication.utils;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import com.Backend.features.authentication.model.OutboundEmail;
+import com.Backend.features.authentication.repository.OutboundEmailRepository;
 import org.springframework.stereotype.Service;
 
-import java.io.UnsupportedEncodingException;
-
+/**
+ * Queues emails in the email_outbox table, EmailOutboxWorker delivers them in the background
+ * so SMTP latency and outages never reach the request. Bodies are stored encrypted.
+ */
 @Service
 public class EmailService {
-    private final JavaMailSender mailSender;
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final EmailBodyCipher emailBodyCipher;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(OutboundEmailRepository outboundEmailRepository, EmailBodyCipher emailBodyCipher) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.emailBodyCipher = emailBodyCipher;
     }
 
 
-    public void sendEmail(String email , String subject ,String content ) throws MessagingException , UnsupportedEncodingException {
-        MimeMessage message = mailSender.createMimeMessage();
-
-        MimeMessageHelper helper = new MimeMessageHelper(message);
-        helper.setFrom("chandanprajapati6307@gmail.com" , "Speakly");
-        helper.setTo(email);
-        helper.setSubject(subject);
-        helper.setText(content ,true);
-
-        mailSender.send(message);
+    public void sendEmail(String email , String subject ,String content ) {
+        outboundEmailRepository.save(new OutboundEmail(email, subject, emailBodyCipher.encrypt(content)));
     }
 }
-
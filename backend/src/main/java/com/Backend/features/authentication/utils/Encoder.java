@@ -7,6 +7,10 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 
+/**
+ * Plain SHA-256 digests for the random email verification and password reset tokens.
+ * Passwords go through PasswordHasher instead.
+ */
 @Component
 public class Encoder {
 
@@ -21,7 +25,10 @@ public class Encoder {
     }
 
     public boolean matches(CharSequence rawPassword , String encodedPassword){
-        return encode(rawPassword).equals(encodedPassword);
+        if (encodedPassword == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(encode(rawPassword).getBytes(StandardCharsets.UTF_8), encodedPassword.getBytes(StandardCharsets.UTF_8));
     }
 
 }
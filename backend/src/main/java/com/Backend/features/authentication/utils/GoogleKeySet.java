@@ -0,0 +1,151 @@
+package com.Backend.features.authentication.utils;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Google's signing keys by {@code kid}, fetched from the JWKS endpoint and kept for the max-age it advertises.
+ * Refreshed in the background shortly before they expire, and refetched once when a token names a key we don't
+ * know yet (Google rotates keys ahead of using them, so this is rare). When Google can't be reached after the keys
+ * expired, the last known keys stay in use for {@code oauth.google.jwks-grace}, so an outage on their side doesn't
+ * lock everyone out of Google sign-in; keys are rotated weeks apart, well within the grace period.
+ */
+@Component
+public class GoogleKeySet {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleKeySet.class);
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final long DEFAULT_MAX_AGE_MILLIS = 60 * 60 * 1000;
+    private static final long REFRESH_AHEAD_MILLIS = 5 * 60 * 1000;
+    // Unknown kids come from the token, don't let them trigger more than one fetch per interval
+    private static final long MIN_REFETCH_INTERVAL_MILLIS = 30 * 1000;
+
+    private final RestTemplate restTemplate;
+    private final String jwksUri;
+    private final long graceMillis;
+    private volatile KeySnapshot snapshot = new KeySnapshot(Map.of(), 0, 0, 0);
+
+    public GoogleKeySet(RestTemplate restTemplate,
+                        @Value("${oauth.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}") String jwksUri,
+                        @Value("${oauth.google.jwks-grace:PT24H}") Duration grace) {
+        this.restTemplate = restTemplate;
+        this.jwksUri = jwksUri;
+        this.graceMillis = grace.toMillis();
+    }
+
+    public PublicKey getKey(String kid) {
+        if (kid == null) {
+            throw new IllegalArgumentException("ID token has no kid");
+        }
+        KeySnapshot current = snapshot;
+        if (current.expiresAt() <= System.currentTimeMillis()) {
+            current = refresh(current);
+        }
+
+        PublicKey key = current.keys().get(kid);
+        if (key == null && current.attemptedAt() + MIN_REFETCH_INTERVAL_MILLIS <= System.currentTimeMillis()) {
+            key = refresh(current).keys().get(kid);
+        }
+        if (key == null) {
+            throw new IllegalArgumentException("No matching key found for kid: " + kid);
+        }
+        return key;
+    }
+
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void refreshAhead() {
+        KeySnapshot current = snapshot;
+        if (current.attemptedAt() > 0 && current.expiresAt() - REFRESH_AHEAD_MILLIS <= System.currentTimeMillis()) {
+            try {
+                refresh(current);
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh Google signing keys, keeping the current ones", e);
+            }
+        }
+    }
+
+    // Concurrent callers that saw the same stale snapshot share a single fetch
+    private synchronized KeySnapshot refresh(KeySnapshot seen) {
+        if (snapshot != seen) {
+            return snapshot;
+        }
+
+        long now = System.currentTimeMillis();
+        ResponseEntity<Jwks> response;
+        try {
+            response = restTemplate.getForEntity(jwksUri, Jwks.class);
+            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null || response.getBody().keys() == null) {
+                throw new IllegalArgumentException("Failed to fetch JWKs from Google");
+            }
+        } catch (RuntimeException e) {
+            if (seen.keys().isEmpty() || seen.usableUntil() <= now) {
+                throw e;
+            }
+            log.warn("Failed to refresh Google signing keys, using the last known ones until {}", Instant.ofEpochMilli(seen.usableUntil()), e);
+            // Retry no more often than for unknown kids, and never past the grace period
+            long retryAt = Math.max(seen.expiresAt(), Math.min(now + MIN_REFETCH_INTERVAL_MILLIS, seen.usableUntil()));
+            snapshot = new KeySnapshot(seen.keys(), now, retryAt, seen.usableUntil());
+            return snapshot;
+        }
+
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (Jwk jwk : response.getBody().keys()) {
+            if ("RSA".equals(jwk.kty()) && jwk.kid() != null) {
+                keys.put(jwk.kid(), toPublicKey(jwk));
+            }
+        }
+
+        long expiresAt = now + maxAgeMillis(response.getHeaders().getCacheControl());
+        snapshot = new KeySnapshot(Map.copyOf(keys), now, expiresAt, expiresAt + graceMillis);
+        return snapshot;
+    }
+
+    private static long maxAgeMillis(String cacheControl) {
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                return Long.parseLong(matcher.group(1)) * 1000;
+            }
+        }
+        return DEFAULT_MAX_AGE_MILLIS;
+    }
+
+    private static PublicKey toPublicKey(Jwk jwk) {
+        try {
+            BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.n()));
+            BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.e()));
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to parse RSA public key", e);
+        }
+    }
+
+    // attemptedAt is the last fetch, successful or not; usableUntil ends the grace period of these keys
+    private record KeySnapshot(Map<String, PublicKey> keys, long attemptedAt, long expiresAt, long usableUntil) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Jwks(List<Jwk> keys) {
+    }
+
+    // Only the RSA members, Google signs ID tokens with RS256
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Jwk(String kid, String kty, String n, String e) {
+    }
+}
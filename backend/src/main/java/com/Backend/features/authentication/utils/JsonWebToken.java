@@ -3,33 +3,31 @@ package com.Backend.features.authentication.utils;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import javax.crypto.SecretKey;
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.security.KeyFactory;
-import java.security.spec.RSAPublicKeySpec;
-import java.util.Base64;
 import java.util.Date;
-import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JsonWebToken {
 
-    private final RestTemplate restTemplate;
+    private final JwtParser googleParser;
 
-    public JsonWebToken(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public JsonWebToken(GoogleKeySet googleKeySet) {
+        // 🔑 Picks the cached Google public key named by the JWT header `kid`
+        this.googleParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return googleKeySet.getKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
 
     @Value("${jwt.secret.key}")
@@ -37,13 +35,33 @@ public class JsonWebToken {
 
     private static final long EXPIRATION_TIME = 10 * 60 * 60 * 1000;
 
+    // Built once, both are immutable and thread-safe
+    private SecretKey key;
+    private JwtParser parser;
 
-    public SecretKey getKey(){
+    @PostConstruct
+    void initKey() {
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         if(keyBytes.length <32){
             throw new IllegalArgumentException("Secret key must be at least 256 bits (32 characters) long");
         }
-        return Keys.hmacShaKeyFor(keyBytes);
+        key = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+    }
+
+    public SecretKey getKey(){
+        return key;
+    }
+
+    /**
+     * Verifies the signature and expiration in a single parse.
+     *
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims parseToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String generateToken(String email) {
@@ -60,12 +78,7 @@ public class JsonWebToken {
     }
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getKey())
-                    .build()
-                    .parseClaimsJws(token); // 🚨 If invalid or expired, this will throw
-
-            return !isTokenExpired(token);
+            return !parseToken(token).getExpiration().before(new Date()); // 🚨 If invalid or expired, this will throw
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
@@ -77,11 +90,7 @@ public class JsonWebToken {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parseToken(token);
     }
     public boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
@@ -94,59 +103,9 @@ public class JsonWebToken {
 
     public Claims getClaimsFromGoogleOauthIdToken(String idToken) {
         try {
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    "https://www.googleapis.com/oauth2/v3/certs", // 📡 Public keys for Google ID validation
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<>() {}
-            );
-
-            if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
-                throw new IllegalArgumentException("Failed to fetch JWKs from Google");
-            }
-
-            Map<String, Object> body = response.getBody();
-            List<Map<String, Object>> keys = (List<Map<String, Object>>) body.get("keys");
-
-            Jws<Claims> jws = Jwts.parserBuilder()
-                    .setSigningKeyResolver(new GoogleSigningKeyResolver(keys)) // 🔑 Google signing key logic
-                    .build()
-                    .parseClaimsJws(idToken); // ✅ Validates the Google ID token
-
-            return jws.getBody(); // 📦 Extracts info like email, name, sub (userId)
+            return googleParser.parseClaimsJws(idToken).getBody(); // 📦 Extracts info like email, name, sub (userId)
         } catch (Exception e) {
             throw new IllegalArgumentException("Failed to validate ID token", e);
         }
     }
-
-    /**
-     * 🛠️ Helper class to dynamically select Google public key based on the JWT header `kid`
-     */
-    private static class GoogleSigningKeyResolver extends SigningKeyResolverAdapter {
-        private final List<Map<String, Object>> keys;
-
-        public GoogleSigningKeyResolver(List<Map<String, Object>> keys) {
-            this.keys = keys;
-        }
-
-        @Override
-        public Key resolveSigningKey(JwsHeader header, Claims claims) {
-            String kid = (String) header.get("kid");
-
-            for (Map<String, Object> key : keys) {
-                if (kid.equals(key.get("kid"))) {
-                    try {
-                        BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode((String) key.get("n")));
-                        BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode((String) key.get("e")));
-                        RSAPublicKeySpec spec = new RSAPublicKeySpec(modulus, exponent);
-                        return KeyFactory.getInstance("RSA").generatePublic(spec);
-                    } catch (Exception e) {
-                        throw new IllegalArgumentException("Failed to parse RSA public key", e);
-                    }
-                }
-            }
-
-            throw new IllegalArgumentException("No matching key found for kid: " + kid);
-        }
-    }
 }
@@ -0,0 +1,34 @@
+package com.Backend.features.authentication.utils.password;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * The original unsalted, untagged SHA-256 password hashes. Only verified, never produced: they are always
+ * rehashed with the current algorithm on the next successful login.
+ */
+@Component
+public class LegacySha256PasswordHash implements PasswordVerifier {
+
+    public static final String ID = "sha256";
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.isEqual(Base64.getEncoder().encodeToString(hash).getBytes(StandardCharsets.UTF_8),
+                    encodedPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
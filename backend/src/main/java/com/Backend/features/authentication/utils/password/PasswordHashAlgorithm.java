@@ -0,0 +1,14 @@
+package com.Backend.features.authentication.utils.password;
+
+/**
+ * A way of hashing passwords that new hashes can be made with.
+ */
+public interface PasswordHashAlgorithm extends PasswordVerifier {
+
+    String hash(CharSequence rawPassword);
+
+    /**
+     * Whether the hash was made with weaker parameters than the current ones, and should be replaced on next login.
+     */
+    boolean needsRehash(String encodedPassword);
+}
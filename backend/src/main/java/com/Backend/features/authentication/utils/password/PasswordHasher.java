@@ -0,0 +1,85 @@
+package com.Backend.features.authentication.utils.password;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hashes passwords with the configured {@code auth.password.algorithm} and verifies them with the verifier named by
+ * their {@code $<id>$} prefix (untagged hashes are the legacy SHA-256 ones).
+ * Hashing is deliberately slow, so it runs on a small bounded pool: under a login storm callers beyond the queue
+ * are rejected with a {@link RejectedExecutionException} instead of tying up every request thread.
+ */
+@Component
+public class PasswordHasher {
+
+    private final Map<String, PasswordVerifier> verifiers;
+    private final PasswordHashAlgorithm current;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHasher(List<PasswordVerifier> verifiers,
+                          @Value("${auth.password.algorithm:" + Pbkdf2PasswordHash.ID + "}") String algorithm,
+                          @Value("${auth.password.hashing-threads:0}") int threads,
+                          @Value("${auth.password.hashing-queue-capacity:64}") int queueCapacity) {
+        this.verifiers = verifiers.stream().collect(Collectors.toMap(PasswordVerifier::id, Function.identity()));
+        if (!(this.verifiers.get(algorithm) instanceof PasswordHashAlgorithm hashAlgorithm)) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        }
+        this.current = hashAlgorithm;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-hasher-", 0).factory());
+    }
+
+    public String hash(CharSequence rawPassword) {
+        return run(() -> current.hash(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        return run(() -> verifierOf(encodedPassword).matches(rawPassword, encodedPassword));
+    }
+
+    public boolean needsRehash(String encodedPassword) {
+        return verifierOf(encodedPassword) != current || current.needsRehash(encodedPassword);
+    }
+
+    private PasswordVerifier verifierOf(String encodedPassword) {
+        if (!encodedPassword.startsWith("$")) {
+            return verifiers.get(LegacySha256PasswordHash.ID);
+        }
+        int end = encodedPassword.indexOf('$', 1);
+        PasswordVerifier verifier = end > 0 ? verifiers.get(encodedPassword.substring(1, end)) : null;
+        if (verifier == null) {
+            throw new IllegalStateException("Unknown password hash format");
+        }
+        return verifier;
+    }
+
+    private <T> T run(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
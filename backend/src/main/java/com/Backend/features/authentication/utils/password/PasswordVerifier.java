@@ -0,0 +1,13 @@
+package com.Backend.features.authentication.utils.password;
+
+/**
+ * Checks passwords against hashes of one format. Encoded hashes start with {@code $<id>$} so the format (and its
+ * parameters) that produced them can be told apart when verifying. Formats we still accept but no longer produce
+ * implement only this; those we can produce are {@link PasswordHashAlgorithm}s.
+ */
+public interface PasswordVerifier {
+
+    String id();
+
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+}
@@ -0,0 +1,72 @@
+package com.Backend.features.authentication.utils.password;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256, encoded as {@code $pbkdf2-sha256$<iterations>$<salt>$<hash>}.
+ * The iteration count is {@code auth.password.pbkdf2-iterations}, raising it upgrades existing hashes on login.
+ */
+@Component
+public class Pbkdf2PasswordHash implements PasswordHashAlgorithm {
+
+    public static final String ID = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+
+    public Pbkdf2PasswordHash(@Value("${auth.password.pbkdf2-iterations:310000}") int iterations) {
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public String hash(CharSequence rawPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return "$" + ID + "$" + iterations + "$" + base64.encodeToString(salt) + "$"
+                + base64.encodeToString(derive(rawPassword, salt, iterations));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        String[] parts = encodedPassword.split("\\$");
+        if (parts.length != 5) {
+            return false;
+        }
+        byte[] salt = Base64.getDecoder().decode(parts[3]);
+        byte[] expected = Base64.getDecoder().decode(parts[4]);
+        return MessageDigest.isEqual(expected, derive(rawPassword, salt, Integer.parseInt(parts[2])));
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        String[] parts = encodedPassword.split("\\$");
+        return parts.length != 5 || Integer.parseInt(parts[2]) < iterations;
+    }
+
+    private static byte[] derive(CharSequence rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toString().toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.Backend.features.feed.controller;
 
 
 import com.Backend.dto.Response;
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
 import com.Backend.features.authentication.model.User;
 import com.Backend.features.feed.dto.CommentDto;
+import com.Backend.features.feed.dto.FeedPage;
+import com.Backend.features.feed.dto.PostSummary;
 import com.Backend.features.feed.model.Comment;
 import com.Backend.features.feed.model.Post;
 import com.Backend.features.feed.service.FeedService;
@@ -24,22 +27,38 @@ public class FeedController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Post>> getFeedPosts(@RequestAttribute("authenticatedUser") User user){
-        List<Post> posts = feedService.getFeedPosts(user.getId());
+    public ResponseEntity<List<Post>> getFeedPosts(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal){
+        List<Post> posts = feedService.getFeedPosts(principal.id());
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<FeedPage<Post>> getFeedPage(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        FeedPage<Post> page = feedService.getFeedPage(principal.id(), cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/posts")
     public ResponseEntity<List<Post>> getAllPosts() {
         List<Post> posts = feedService.getAllPosts();
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/posts/page")
+    public ResponseEntity<FeedPage<PostSummary>> getAllPostSummaries(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit) {
+        FeedPage<PostSummary> page = feedService.getAllPostSummaries(principal.id(), cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
     @PostMapping("/posts")
     public ResponseEntity<Post> createPost(@RequestParam(value = "picture" ,required = false ) MultipartFile picture,
                                            @RequestParam("content") String content,
-                                           @RequestAttribute("authenticatedUser") User user) throws Exception {
-        Post post =feedService.createPost(picture,content,user.getId());
+                                           @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) throws Exception {
+        Post post =feedService.createPost(picture,content,principal.id());
         return ResponseEntity.ok(post);
     }
 
@@ -52,23 +71,23 @@ public class FeedController {
     @PutMapping("/posts/{postId}")
     public ResponseEntity<Post> editPost(@PathVariable Long postId, @RequestParam(value = "picture", required = false) MultipartFile picture,
                                          @RequestParam("content") String content,
-                                         @RequestAttribute("authenticatedUser") User user) throws Exception {
-        Post post = feedService.editPost(postId, user.getId(), picture, content);
+                                         @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) throws Exception {
+        Post post = feedService.editPost(postId, principal.id(), picture, content);
         return ResponseEntity.ok(post);
     }
 
 
     @DeleteMapping("/posts/{postId}")
     public ResponseEntity<Response> deletePost(@PathVariable Long postId,
-                                               @RequestAttribute("authenticatedUser") User user) {
-        feedService.deletePost(postId, user.getId());
+                                               @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) {
+        feedService.deletePost(postId, principal.id());
         return ResponseEntity.ok(new Response("Post deleted successfully."));
     }
 
     @PostMapping("/post/{postId}/comments")
-    public ResponseEntity<Comment> addComment(@PathVariable Long postId, @RequestBody CommentDto commentDto ,@RequestAttribute("authenticatedUser") User user
+    public ResponseEntity<Comment> addComment(@PathVariable Long postId, @RequestBody CommentDto commentDto ,@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal
     ){
-        Comment comment = feedService.addComment(postId,user.getId(), commentDto.getContent());
+        Comment comment = feedService.addComment(postId,principal.id(), commentDto.getContent());
         return ResponseEntity.ok(comment);
     }
 
@@ -79,22 +98,22 @@ public class FeedController {
     }
 
     @DeleteMapping("/comments/{commentId}")
-    public ResponseEntity<Response> deleteComment(@PathVariable Long commentId , @RequestAttribute("authenticatedUser") User user){
-         feedService.deleteComment(commentId , user.getId());
+    public ResponseEntity<Response> deleteComment(@PathVariable Long commentId , @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal){
+         feedService.deleteComment(commentId , principal.id());
         return ResponseEntity.ok(new Response("Comment Deleted Successfully."));
     }
 
 
     @PutMapping("/comments/{commentId}")
-    public ResponseEntity<Comment> editComment(@PathVariable Long commentId, @RequestBody CommentDto commentDto ,@RequestAttribute("authenticatedUser") User user
+    public ResponseEntity<Comment> editComment(@PathVariable Long commentId, @RequestBody CommentDto commentDto ,@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal
     ){
-        Comment comment = feedService.editComment(commentId,user.getId(), commentDto.getContent());
+        Comment comment = feedService.editComment(commentId,principal.id(), commentDto.getContent());
         return ResponseEntity.ok(comment);
     }
 
     @PutMapping("/posts/{postId}/like")
-    public ResponseEntity<Post> likePost(@PathVariable Long postId, @RequestAttribute("authenticatedUser") User user) {
-        Post post = feedService.likePost(postId, user.getId());
+    public ResponseEntity<Post> likePost(@PathVariable Long postId, @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) {
+        Post post = feedService.likePost(postId, principal.id());
         return ResponseEntity.ok(post);
     }
 
@@ -0,0 +1,29 @@
+package com.Backend.features.feed.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the feed: the (creationDate, id) of the last post a client has seen.
+ * Clients only ever see the encoded, opaque form.
+ */
+public record FeedCursor(LocalDateTime creationDate, Long id) {
+
+    public String encode() {
+        String raw = creationDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new FeedCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid feed cursor.");
+        }
+    }
+}
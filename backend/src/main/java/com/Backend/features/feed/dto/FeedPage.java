@@ -0,0 +1,9 @@
+package com.Backend.features.feed.dto;
+
+import java.util.List;
+
+/**
+ * One page of a feed. {@code nextCursor} is null once the end of the feed is reached.
+ */
+public record FeedPage<T>(List<T> posts, String nextCursor) {
+}
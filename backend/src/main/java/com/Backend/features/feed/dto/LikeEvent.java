@@ -0,0 +1,9 @@
+package com.Backend.features.feed.dto;
+
+import com.Backend.features.authentication.dto.UserCard;
+
+/**
+ * Broadcast on {@code /topic/likes/{postId}} when a user likes ({@code delta = 1}) or unlikes ({@code delta = -1}) a post.
+ */
+public record LikeEvent(Long postId, UserCard user, boolean liked, int delta) {
+}
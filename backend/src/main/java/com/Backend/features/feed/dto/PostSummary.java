@@ -0,0 +1,30 @@
+package com.Backend.features.feed.dto;
+
+import com.Backend.features.authentication.dto.UserCard;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a post for feed pages: counts and the viewer's like state instead of the likes and comments collections.
+ */
+public record PostSummary(
+        Long id,
+        String content,
+        String picture,
+        LocalDateTime creationDate,
+        LocalDateTime updatedDate,
+        UserCard author,
+        long likeCount,
+        long commentCount,
+        boolean likedByMe
+) {
+
+    // Flat form used by the JPQL constructor expression in PostRepository
+    public PostSummary(Long id, String content, String picture, LocalDateTime creationDate, LocalDateTime updatedDate,
+                       Long authorId, String authorFirstName, String authorLastName, String authorProfilePicture,
+                       Long likeCount, Long commentCount, Boolean likedByMe) {
+        this(id, content, picture, creationDate, updatedDate,
+                new UserCard(authorId, authorFirstName, authorLastName, authorProfilePicture),
+                likeCount, commentCount, likedByMe);
+    }
+}
@@ -0,0 +1,15 @@
+package com.Backend.features.feed.dto;
+
+import com.Backend.features.feed.model.Post;
+
+import java.time.LocalDateTime;
+
+/**
+ * A post reference stored in a user's home timeline.
+ */
+public record TimelineItem(Long postId, Long authorId, LocalDateTime creationDate) {
+
+    public static TimelineItem of(Post post) {
+        return new TimelineItem(post.getId(), post.getAuthor().getId(), post.getCreationDate());
+    }
+}
@@ -2,9 +2,11 @@ package com.Backend.features.feed.model;
 
 
 import com.Backend.features.authentication.model.User;
+import com.Backend.features.storage.model.ImageVariants;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -12,6 +14,7 @@ import java.util.List;
 import java.util.Set;
 
 @Entity(name = "posts")
+@Table(indexes = @Index(name = "idx_posts_author_creation_date", columnList = "author_id, creation_date DESC, id DESC"))
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,6 +27,8 @@ public class Post {
 
     private String picture;
 
+    @Embedded
+    private ImageVariants pictureVariants;
 
     @ManyToOne
     @JoinColumn(name = "author_id", nullable = false)
@@ -43,6 +48,12 @@ public class Post {
     @OneToMany(mappedBy = "post",cascade = CascadeType.ALL,orphanRemoval = true)
     private List<Comment> comments;
 
+    // Denormalized size of likes, maintained by LikeService in SQL only. Never written from the entity, a save of a
+    // loaded post would otherwise put back the count it read and lose the deltas flushed in between
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private long likeCount;
+
     @CreationTimestamp
     private LocalDateTime creationDate;
 
@@ -86,6 +97,14 @@ public class Post {
         this.picture = picture;
     }
 
+    public ImageVariants getPictureVariants() {
+        return pictureVariants;
+    }
+
+    public void setPictureVariants(ImageVariants pictureVariants) {
+        this.pictureVariants = pictureVariants;
+    }
+
     public User getAuthor() {
         return author;
     }
@@ -110,6 +129,10 @@ public class Post {
         this.comments = comments;
     }
 
+    public long getLikeCount() {
+        return likeCount;
+    }
+
     public LocalDateTime getCreationDate() {
         return creationDate;
     }
@@ -0,0 +1,54 @@
+package com.Backend.features.feed.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "timeline_entries")
+@Table(
+        indexes = {
+                @Index(name = "idx_timeline_user_creation_date", columnList = "user_id, creation_date DESC, post_id DESC"),
+                @Index(name = "idx_timeline_post", columnList = "post_id")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_timeline_user_post", columnNames = {"user_id", "post_id"})
+)
+public class TimelineEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long postId;
+
+    @Column(nullable = false)
+    private Long authorId;
+
+    @Column(nullable = false)
+    private LocalDateTime creationDate;
+
+    public TimelineEntry() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+}
@@ -0,0 +1,29 @@
+package com.Backend.features.feed.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a home timeline as built. Without it an empty timeline could not be told apart from one that was never
+ * seeded, and every feed load of a user whose connections never posted would run the rebuild again.
+ */
+@Entity(name = "timeline_states")
+public class TimelineState {
+    @Id
+    private Long userId;
+
+    private LocalDateTime materializedAt;
+
+    public TimelineState() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getMaterializedAt() {
+        return materializedAt;
+    }
+}
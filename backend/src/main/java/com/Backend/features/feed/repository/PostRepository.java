@@ -1,10 +1,15 @@
 package com.Backend.features.feed.repository;
 
+import com.Backend.features.feed.dto.PostSummary;
 import com.Backend.features.feed.model.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -13,12 +18,49 @@ public interface PostRepository extends JpaRepository<Post,Long> {
     public List<Post> findAllByOrderByCreationDateDesc() ;
 
     List<Post> findByAuthorId(Long userId);
-    @Query("SELECT DISTINCT p FROM posts p " +
-            "LEFT JOIN FETCH p.author " +
-            "LEFT JOIN FETCH p.likes " +
-            "LEFT JOIN FETCH p.comments " +
-            "ORDER BY p.creationDate DESC")
-    List<Post> getAllPostsWithAuthorAndLikesAndComments();
+    // likes and comments are not serialized with a post, so only the author is fetched
+    @Query("SELECT p FROM posts p JOIN FETCH p.author ORDER BY p.creationDate DESC, p.id DESC")
+    List<Post> findAllWithAuthor();
+
+    String POST_SUMMARY = "SELECT new com.Backend.features.feed.dto.PostSummary(" +
+            "p.id, p.content, COALESCE(p.pictureVariants.cardUrl, p.picture), p.creationDate, p.updatedDate, " +
+            "a.id, a.firstName, a.lastName, COALESCE(a.profilePictureVariants.thumbnailUrl, a.ProfilePicture), " +
+            "p.likeCount, " +
+            "(SELECT COUNT(c) FROM Comments c WHERE c.post.id = p.id), " +
+            "CASE WHEN EXISTS (SELECT 1 FROM posts vp JOIN vp.likes v WHERE vp.id = p.id AND v.id = :viewerId) THEN true ELSE false END) " +
+            "FROM posts p JOIN p.author a ";
+
+    // One statement per page, whatever the number of likes and comments
+    @Query(POST_SUMMARY + "ORDER BY p.creationDate DESC, p.id DESC")
+    List<PostSummary> findSummaries(@Param("viewerId") Long viewerId, Limit limit);
+
+    @Query(POST_SUMMARY +
+            "WHERE p.creationDate < :creationDate OR (p.creationDate = :creationDate AND p.id < :id) " +
+            "ORDER BY p.creationDate DESC, p.id DESC")
+    List<PostSummary> findSummariesBefore(@Param("viewerId") Long viewerId,
+                                          @Param("creationDate") LocalDateTime creationDate,
+                                          @Param("id") Long id,
+                                          Limit limit);
 
     List<Post> findByAuthorIdInOrderByCreationDateDesc(Set<Long> connectedUserIds);
+
+    // Keyset pages over idx_posts_author_creation_date, newest first
+    @Query("SELECT p FROM posts p JOIN FETCH p.author " +
+            "WHERE p.author.id IN :authorIds " +
+            "ORDER BY p.creationDate DESC, p.id DESC")
+    List<Post> findFeedPage(@Param("authorIds") Collection<Long> authorIds, Limit limit);
+
+    @Query("SELECT p FROM posts p JOIN FETCH p.author " +
+            "WHERE p.author.id IN :authorIds " +
+            "AND (p.creationDate < :creationDate OR (p.creationDate = :creationDate AND p.id < :id)) " +
+            "ORDER BY p.creationDate DESC, p.id DESC")
+    List<Post> findFeedPageBefore(@Param("authorIds") Collection<Long> authorIds,
+                                  @Param("creationDate") LocalDateTime creationDate,
+                                  @Param("id") Long id,
+                                  Limit limit);
+
+    @Query("SELECT p FROM posts p JOIN FETCH p.author WHERE p.id IN :ids")
+    List<Post> findWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<Post> findByAuthorIdOrderByCreationDateDescIdDesc(Long authorId, Limit limit);
 }
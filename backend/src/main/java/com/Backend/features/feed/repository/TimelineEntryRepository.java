@@ -0,0 +1,52 @@
+package com.Backend.features.feed.repository;
+
+import com.Backend.features.feed.model.TimelineEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+
+    @Query("SELECT t FROM timeline_entries t WHERE t.userId = :userId " +
+            "ORDER BY t.creationDate DESC, t.postId DESC")
+    List<TimelineEntry> findLatest(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT t FROM timeline_entries t WHERE t.userId = :userId " +
+            "AND (t.creationDate < :creationDate OR (t.creationDate = :creationDate AND t.postId < :postId)) " +
+            "ORDER BY t.creationDate DESC, t.postId DESC")
+    List<TimelineEntry> findBefore(@Param("userId") Long userId,
+                                   @Param("creationDate") LocalDateTime creationDate,
+                                   @Param("postId") Long postId,
+                                   Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM timeline_entries t WHERE t.postId = :postId")
+    void deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM timeline_entries t WHERE t.userId = :userId AND t.authorId = :authorId")
+    void deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    // Keeps only the newest :capacity entries of every timeline
+    @Modifying
+    @Transactional
+    @Query(value = """
+        DELETE FROM timeline_entries t
+         USING (SELECT id
+                  FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY creation_date DESC, post_id DESC) AS rn
+                          FROM timeline_entries) ranked
+                 WHERE ranked.rn > :capacity) overflow
+         WHERE t.id = overflow.id
+    """, nativeQuery = true)
+    int trimToCapacity(@Param("capacity") int capacity);
+}
@@ -1,17 +1,23 @@
 package com.Backend.features.feed.service;
 
+import com.Backend.features.authentication.dto.UserCard;
 import com.Backend.features.authentication.model.User;
 import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.feed.dto.FeedCursor;
+import com.Backend.features.feed.dto.FeedPage;
+import com.Backend.features.feed.dto.LikeEvent;
+import com.Backend.features.feed.dto.PostSummary;
 import com.Backend.features.feed.model.Comment;
 import com.Backend.features.feed.model.Post;
 import com.Backend.features.feed.repository.CommentRepository;
 import com.Backend.features.feed.repository.PostRepository;
-import com.Backend.features.network.model.Connection;
 import com.Backend.features.network.model.Status;
 import com.Backend.features.network.repository.ConnectionRepository;
 import com.Backend.features.notifications.service.NotificationService;
+import com.Backend.features.storage.model.ImageVariants;
 import com.Backend.features.storage.service.StorageService;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -19,12 +25,13 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 
 @Service
 public class FeedService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
 
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
@@ -32,7 +39,9 @@ public class FeedService {
     private final StorageService storageService;
     private final NotificationService notificationService;
    private final ConnectionRepository connectionRepository;
-    public FeedService(PostRepository postRepository, CommentRepository commentRepository, UserRepository userRepository, StorageService storageService, NotificationService notificationService, ConnectionRepository connectionRepository) {
+    private final TimelineService timelineService;
+    private final LikeService likeService;
+    public FeedService(PostRepository postRepository, CommentRepository commentRepository, UserRepository userRepository, StorageService storageService, NotificationService notificationService, ConnectionRepository connectionRepository, TimelineService timelineService, LikeService likeService) {
 
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
@@ -40,23 +49,42 @@ public class FeedService {
         this.storageService = storageService;
         this.notificationService = notificationService;
         this.connectionRepository = connectionRepository;
+        this.timelineService = timelineService;
+        this.likeService = likeService;
     }
 
     public List<Post> getFeedPosts(Long id) {
-        List<Connection> connections = connectionRepository.findByAuthorIdAndStatusOrRecipientIdAndStatus(
-                id, Status.ACCEPTED, id,Status.ACCEPTED
-        );
-        Set<Long> connectedUserIds = connections.stream()
-                .map(connection -> connection.getAuthor().getId().equals(id)
-                        ? connection.getRecipient().getId()
-                        : connection.getAuthor().getId())
-                .collect(Collectors.toSet());
+        Set<Long> connectedUserIds = new HashSet<>(connectionRepository.findConnectedUserIds(id, Status.ACCEPTED));
 
         return postRepository.findByAuthorIdInOrderByCreationDateDesc(connectedUserIds);
     }
 
+    public FeedPage<Post> getFeedPage(Long id, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return timelineService.getTimeline(id, cursor, pageSize);
+    }
+
     public List<Post> getAllPosts() {
-        return postRepository.getAllPostsWithAuthorAndLikesAndComments();
+        return postRepository.findAllWithAuthor();
+    }
+
+    public FeedPage<PostSummary> getAllPostSummaries(Long viewerId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<PostSummary> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = postRepository.findSummaries(viewerId, fetchLimit);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            summaries = postRepository.findSummariesBefore(viewerId, position.creationDate(), position.id(), fetchLimit);
+        }
+
+        if (summaries.size() <= pageSize) {
+            return new FeedPage<>(summaries, null);
+        }
+        List<PostSummary> page = summaries.subList(0, pageSize);
+        PostSummary last = page.get(pageSize - 1);
+        return new FeedPage<>(page, new FeedCursor(last.creationDate(), last.id()).encode());
     }
 
     public Post createPost(MultipartFile picture, String content, Long id) throws Exception {
@@ -66,18 +94,23 @@ public class FeedService {
 
         Post post = new Post(content , author);
         if (picture != null && !picture.isEmpty()) {
-            String pictureUrl = storageService.saveImage(picture);
-            post.setPicture(pictureUrl);
+            ImageVariants pictureVariants = storageService.saveImageVariants(picture);
+            post.setPicture(pictureVariants.getFullUrl());
+            post.setPictureVariants(pictureVariants);
         }
         post.setLikes(new HashSet<>());
-        notificationService.sendNewPostNotificationToFeed(post);
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        timelineService.fanOut(savedPost);
+        notificationService.sendNewPostNotificationToFeed(savedPost);
+        return savedPost;
     }
 
     public Post getPost(Long postId) {
         return postRepository.findById(postId).orElseThrow(()-> new IllegalArgumentException("Post not Found!"));
     }
 
+    // The likes are cleared and the post saved together, or not at all
+    @Transactional
     public Post editPost(Long postId, Long id, MultipartFile picture, String content) throws Exception {
         Post post = postRepository.findById(postId).orElseThrow(()-> new IllegalArgumentException("post Not Found!"));
         User user =userRepository.findById(id).orElseThrow(()-> new IllegalArgumentException("User Not Found!"));
@@ -85,16 +118,23 @@ public class FeedService {
        if(!post.getAuthor().equals(user)){
            throw new IllegalArgumentException("User don't have permission");
        }
+       ImageVariants replacedVariants = null;
+       String replacedPicture = null;
        if (picture != null && !picture.isEmpty()){
-           String pictureUrl = storageService.saveImage(picture);
-           post.setPicture(pictureUrl);
+           ImageVariants pictureVariants = storageService.saveImageVariants(picture);
+           replacedVariants = post.getPictureVariants();
+           replacedPicture = post.getPicture();
+           post.setPicture(pictureVariants.getFullUrl());
+           post.setPictureVariants(pictureVariants);
        }
 
 
         post.setContent(content);
-        post.setLikes(new HashSet<>());
+        likeService.clearLikes(postId);
         notificationService.sendEditNotificationToPost(postId ,post);
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        storageService.releaseAfterCommit(replacedVariants, replacedPicture);
+        return savedPost;
     }
 
     public void deletePost(Long postId, Long id) {
@@ -106,6 +146,8 @@ public class FeedService {
         }
         notificationService.sendDeleteNotificationToPost(postId);
         postRepository.delete(post);
+        timelineService.removePost(postId);
+        storageService.releaseAfterCommit(post.getPictureVariants(), post.getPicture());
     }
 
     public Comment addComment(Long postId, Long id, String content) {
@@ -151,25 +193,19 @@ public class FeedService {
         Post post = postRepository.findById(postId).orElseThrow(() -> new IllegalArgumentException("Post not found"));
         User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        boolean isLiking = false;
-
-        if(post.getLikes().contains(user)){
-            post.getLikes().remove(user);  // Unliking
+        // Toggles the join table row directly, the likes collection is never loaded
+        LikeService.Toggle toggle = likeService.toggleLike(postId, userId);
+        if (toggle == LikeService.Toggle.UNCHANGED) {
+            return post;
         }
-        else {
-            post.getLikes().add(user);     // Liking
-            isLiking = true;
+        boolean liked = toggle == LikeService.Toggle.LIKED;
+        if (liked) {
             notificationService.sendLikeNotification(user, post.getAuthor(), post.getId());
         }
-
-        Post savedPost = postRepository.save(post);
-
-        // Only send like notification if user is actually liking the post
-        if (isLiking) {
-            notificationService.sendLikeToPost(postId, savedPost.getLikes());
-        }
-
-        return savedPost;
+        notificationService.sendLikeToPost(postId, new LikeEvent(postId,
+                UserCard.of(user),
+                liked, liked ? 1 : -1));
+        return post;
     }
 
     public Set<User> getPostLikes(Long postId) {
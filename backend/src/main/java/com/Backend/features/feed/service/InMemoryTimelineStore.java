@@ -0,0 +1,99 @@
+package com.Backend.features.feed.service;
+
+import com.Backend.features.feed.dto.FeedCursor;
+import com.Backend.features.feed.dto.TimelineItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(name = "feed.timeline.store", havingValue = "memory")
+public class InMemoryTimelineStore implements TimelineStore {
+
+    private static final Comparator<TimelineItem> NEWEST_FIRST = Comparator
+            .comparing(TimelineItem::creationDate, Comparator.reverseOrder())
+            .thenComparing(TimelineItem::postId, Comparator.reverseOrder());
+
+    private final Map<Long, TreeSet<TimelineItem>> timelines = new ConcurrentHashMap<>();
+    private final Set<Long> materialized = ConcurrentHashMap.newKeySet();
+    private final int capacity;
+
+    public InMemoryTimelineStore(@Value("${feed.timeline.capacity:500}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void push(Collection<Long> userIds, TimelineItem item) {
+        for (Long userId : userIds) {
+            add(userId, List.of(item));
+        }
+    }
+
+    @Override
+    public void pushAll(Long userId, Collection<TimelineItem> items) {
+        add(userId, items);
+    }
+
+    @Override
+    public List<TimelineItem> range(Long userId, FeedCursor before, int limit) {
+        TreeSet<TimelineItem> timeline = timelines.get(userId);
+        if (timeline == null) {
+            return List.of();
+        }
+        synchronized (timeline) {
+            SortedSet<TimelineItem> view = before == null
+                    ? timeline
+                    : timeline.tailSet(new TimelineItem(before.id(), null, before.creationDate()), false);
+            List<TimelineItem> items = new ArrayList<>(Math.min(limit, view.size()));
+            for (TimelineItem item : view) {
+                if (items.size() == limit) {
+                    break;
+                }
+                items.add(item);
+            }
+            return items;
+        }
+    }
+
+    @Override
+    public void removePost(Long postId) {
+        for (TreeSet<TimelineItem> timeline : timelines.values()) {
+            synchronized (timeline) {
+                timeline.removeIf(item -> item.postId().equals(postId));
+            }
+        }
+    }
+
+    @Override
+    public void removeAuthor(Long userId, Long authorId) {
+        TreeSet<TimelineItem> timeline = timelines.get(userId);
+        if (timeline != null) {
+            synchronized (timeline) {
+                timeline.removeIf(item -> item.authorId().equals(authorId));
+            }
+        }
+    }
+
+    @Override
+    public boolean isMaterialized(Long userId) {
+        return materialized.contains(userId);
+    }
+
+    @Override
+    public void markMaterialized(Long userId) {
+        materialized.add(userId);
+    }
+
+    private void add(Long userId, Collection<TimelineItem> items) {
+        TreeSet<TimelineItem> timeline = timelines.computeIfAbsent(userId, id -> new TreeSet<>(NEWEST_FIRST));
+        synchronized (timeline) {
+            timeline.addAll(items);
+            while (timeline.size() > capacity) {
+                timeline.pollLast();
+            }
+        }
+    }
+}
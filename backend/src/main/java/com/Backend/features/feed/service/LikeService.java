@@ -0,0 +1,160 @@
+package com.Backend.features.feed.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Likes are written straight to the posts_likes join table. The denormalized posts.like_count is
+ * kept up to date through per-post striped accumulators that are flushed to the database in one batch.
+ */
+@Service
+public class LikeService {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, PendingCount> pendingCounts = new ConcurrentHashMap<>();
+
+    public LikeService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public enum Toggle {
+        LIKED,
+        UNLIKED,
+        // A concurrent toggle by the same user inserted the like first
+        UNCHANGED
+    }
+
+    /**
+     * Likes the post, or removes the like if the user already liked it.
+     *
+     * @return what this call changed, callers only announce LIKED and UNLIKED
+     */
+    public Toggle toggleLike(Long postId, Long userId) {
+        int removed = jdbcTemplate.update("DELETE FROM posts_likes WHERE post_id = ? AND user_id = ?", postId, userId);
+        if (removed > 0) {
+            accumulateAfterCommit(postId, -removed);
+            return Toggle.UNLIKED;
+        }
+        int inserted = jdbcTemplate.update("INSERT INTO posts_likes (post_id, user_id) VALUES (?, ?) ON CONFLICT DO NOTHING", postId, userId);
+        accumulateAfterCommit(postId, inserted);
+        return inserted > 0 ? Toggle.LIKED : Toggle.UNCHANGED;
+    }
+
+    public void clearLikes(Long postId) {
+        int removed = jdbcTemplate.update("DELETE FROM posts_likes WHERE post_id = ?", postId);
+        accumulateAfterCommit(postId, -removed);
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        pendingCounts.forEach((postId, pending) -> {
+            long delta = pending.delta.sumThenReset();
+            if (delta != 0) {
+                batch.add(new Object[]{delta, postId});
+            } else {
+                retireIfIdle(postId, pending);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate("UPDATE posts SET like_count = like_count + ? WHERE id = ?", batch);
+        } catch (DataAccessException e) {
+            log.error("Failed to flush {} like counters, retrying on next flush: {}", batch.size(), e.getMessage());
+            batch.forEach(row -> accumulate((Long) row[1], (Long) row[0]));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Posts liked before like_count existed start at 0, count them once
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeLegacyCounts() {
+        int updated = jdbcTemplate.update("""
+                UPDATE posts p
+                   SET like_count = (SELECT COUNT(*) FROM posts_likes pl WHERE pl.post_id = p.id)
+                 WHERE p.like_count = 0
+                   AND EXISTS (SELECT 1 FROM posts_likes pl WHERE pl.post_id = p.id)
+                """);
+        if (updated > 0) {
+            log.info("Initialized like counts of {} posts", updated);
+        }
+    }
+
+    private void accumulateAfterCommit(Long postId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accumulate(postId, delta);
+                }
+            });
+        } else {
+            accumulate(postId, delta);
+        }
+    }
+
+    private void accumulate(Long postId, long delta) {
+        while (true) {
+            PendingCount pending = pendingCounts.computeIfAbsent(postId, id -> new PendingCount());
+            pending.retireLock.readLock().lock();
+            try {
+                if (!pending.retired) {
+                    pending.delta.add(delta);
+                    return;
+                }
+            } finally {
+                pending.retireLock.readLock().unlock();
+            }
+        }
+    }
+
+    // Drops a counter with nothing left to flush. Writers holding it will retry on a fresh one.
+    private void retireIfIdle(Long postId, PendingCount pending) {
+        if (!pending.retireLock.writeLock().tryLock()) {
+            return;
+        }
+        try {
+            if (pending.delta.sum() == 0) {
+                pending.retired = true;
+                pendingCounts.remove(postId, pending);
+            }
+        } finally {
+            pending.retireLock.writeLock().unlock();
+        }
+    }
+
+    private static final class PendingCount {
+        private final LongAdder delta = new LongAdder();
+        private final ReadWriteLock retireLock = new ReentrantReadWriteLock();
+        private boolean retired;
+    }
+}
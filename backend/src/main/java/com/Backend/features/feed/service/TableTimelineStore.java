@@ -0,0 +1,104 @@
+package com.Backend.features.feed.service;
+
+import com.Backend.features.feed.dto.FeedCursor;
+import com.Backend.features.feed.dto.TimelineItem;
+import com.Backend.features.feed.model.TimelineEntry;
+import com.Backend.features.feed.repository.TimelineEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "feed.timeline.store", havingValue = "table", matchIfMissing = true)
+public class TableTimelineStore implements TimelineStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TableTimelineStore.class);
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_ENTRY = """
+            INSERT INTO timeline_entries (user_id, post_id, author_id, creation_date)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (user_id, post_id) DO NOTHING
+            """;
+    private static final String MARK_MATERIALIZED = """
+            INSERT INTO timeline_states (user_id, materialized_at) VALUES (?, now())
+            ON CONFLICT (user_id) DO NOTHING
+            """;
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+
+    public TableTimelineStore(TimelineEntryRepository timelineEntryRepository, JdbcTemplate jdbcTemplate,
+                              @Value("${feed.timeline.capacity:500}") int capacity) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void push(Collection<Long> userIds, TimelineItem item) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, userIds, BATCH_SIZE, (statement, userId) -> {
+            statement.setLong(1, userId);
+            statement.setLong(2, item.postId());
+            statement.setLong(3, item.authorId());
+            statement.setTimestamp(4, Timestamp.valueOf(item.creationDate()));
+        });
+    }
+
+    @Override
+    public void pushAll(Long userId, Collection<TimelineItem> items) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, items, BATCH_SIZE, (statement, item) -> {
+            statement.setLong(1, userId);
+            statement.setLong(2, item.postId());
+            statement.setLong(3, item.authorId());
+            statement.setTimestamp(4, Timestamp.valueOf(item.creationDate()));
+        });
+    }
+
+    @Override
+    public List<TimelineItem> range(Long userId, FeedCursor before, int limit) {
+        List<TimelineEntry> entries = before == null
+                ? timelineEntryRepository.findLatest(userId, Limit.of(limit))
+                : timelineEntryRepository.findBefore(userId, before.creationDate(), before.id(), Limit.of(limit));
+        return entries.stream()
+                .map(entry -> new TimelineItem(entry.getPostId(), entry.getAuthorId(), entry.getCreationDate()))
+                .toList();
+    }
+
+    @Override
+    public void removePost(Long postId) {
+        timelineEntryRepository.deleteByPostId(postId);
+    }
+
+    @Override
+    public void removeAuthor(Long userId, Long authorId) {
+        timelineEntryRepository.deleteByUserIdAndAuthorId(userId, authorId);
+    }
+
+    @Override
+    public boolean isMaterialized(Long userId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM timeline_states WHERE user_id = ?)", Boolean.class, userId));
+    }
+
+    @Override
+    public void markMaterialized(Long userId) {
+        jdbcTemplate.update(MARK_MATERIALIZED, userId);
+    }
+
+    // Timelines are only trimmed in bulk, so a push never pays for the cleanup
+    @Scheduled(cron = "0 15 * * * *")
+    public void trimTimelines() {
+        int removed = timelineEntryRepository.trimToCapacity(capacity);
+        log.info("Trimmed {} timeline entries beyond capacity {}", removed, capacity);
+    }
+}
@@ -0,0 +1,29 @@
+package com.Backend.features.feed.service;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps both home timelines in step when a connection is accepted or removed, off the request thread.
+ */
+@Component
+public class TimelineBackfillJob {
+
+    private final TimelineService timelineService;
+
+    public TimelineBackfillJob(TimelineService timelineService) {
+        this.timelineService = timelineService;
+    }
+
+    @Async
+    public void connected(Long firstUserId, Long secondUserId) {
+        timelineService.backfill(firstUserId, secondUserId);
+        timelineService.backfill(secondUserId, firstUserId);
+    }
+
+    @Async
+    public void disconnected(Long firstUserId, Long secondUserId) {
+        timelineService.unlink(firstUserId, secondUserId);
+        timelineService.unlink(secondUserId, firstUserId);
+    }
+}
@@ -0,0 +1,188 @@
+package com.Backend.features.feed.service;
+
+import com.Backend.features.feed.dto.FeedCursor;
+import com.Backend.features.feed.dto.FeedPage;
+import com.Backend.features.feed.dto.TimelineItem;
+import com.Backend.features.feed.model.Post;
+import com.Backend.features.feed.repository.PostRepository;
+import com.Backend.features.network.model.Status;
+import com.Backend.features.network.repository.ConnectionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Materialized home timelines. New posts are pushed to every connection of the author on write,
+ * except for authors above {@code feed.timeline.fanout-threshold} connections, whose posts are
+ * pulled and merged in at read time instead. A timeline is seeded from the connections' recent posts the first
+ * time it is read, and only then; a marker in the store records that it was.
+ */
+@Service
+public class TimelineService {
+
+    private static final Comparator<Post> NEWEST_FIRST = Comparator
+            .comparing(Post::getCreationDate, Comparator.reverseOrder())
+            .thenComparing(Post::getId, Comparator.reverseOrder());
+
+    private final TimelineStore timelineStore;
+    private final ConnectionRepository connectionRepository;
+    private final PostRepository postRepository;
+    private final int capacity;
+    private final int fanOutThreshold;
+    private final Set<Long> highFanOutAuthors = ConcurrentHashMap.newKeySet();
+    // Markers are never removed, so a timeline seen materialized once needs no further lookups
+    private final Set<Long> materialized = ConcurrentHashMap.newKeySet();
+
+    public TimelineService(TimelineStore timelineStore, ConnectionRepository connectionRepository, PostRepository postRepository,
+                           @Value("${feed.timeline.capacity:500}") int capacity,
+                           @Value("${feed.timeline.fanout-threshold:1000}") int fanOutThreshold) {
+        this.timelineStore = timelineStore;
+        this.connectionRepository = connectionRepository;
+        this.postRepository = postRepository;
+        this.capacity = capacity;
+        this.fanOutThreshold = fanOutThreshold;
+    }
+
+    public void fanOut(Post post) {
+        Long authorId = post.getAuthor().getId();
+        List<Long> followerIds = connectionRepository.findConnectedUserIds(authorId, Status.ACCEPTED);
+        if (followerIds.size() > fanOutThreshold) {
+            highFanOutAuthors.add(authorId);
+            return;
+        }
+        if (!followerIds.isEmpty()) {
+            timelineStore.push(followerIds, TimelineItem.of(post));
+        }
+    }
+
+    public FeedPage<Post> getTimeline(Long userId, String cursor, int pageSize) {
+        FeedCursor position = cursor == null || cursor.isBlank() ? null : FeedCursor.decode(cursor);
+        if (position == null) {
+            materialize(userId);
+        }
+
+        List<TimelineItem> items = timelineStore.range(userId, position, pageSize + 1);
+
+        Map<Long, Post> postsById = new LinkedHashMap<>(loadPosts(items));
+        List<Long> pulledAuthorIds = pulledAuthorsOf(userId);
+        if (!pulledAuthorIds.isEmpty()) {
+            Limit limit = Limit.of(pageSize + 1);
+            List<Post> pulled = position == null
+                    ? postRepository.findFeedPage(pulledAuthorIds, limit)
+                    : postRepository.findFeedPageBefore(pulledAuthorIds, position.creationDate(), position.id(), limit);
+            pulled.forEach(post -> postsById.putIfAbsent(post.getId(), post));
+        }
+
+        List<Post> posts = new ArrayList<>(postsById.values());
+        posts.sort(NEWEST_FIRST);
+
+        boolean hasMore = items.size() > pageSize || posts.size() > pageSize;
+        List<Post> page = posts.size() > pageSize ? posts.subList(0, pageSize) : posts;
+        if (!hasMore) {
+            return new FeedPage<>(page, null);
+        }
+        FeedCursor next;
+        if (page.isEmpty()) {
+            TimelineItem lastItem = items.get(items.size() - 1);
+            next = new FeedCursor(lastItem.creationDate(), lastItem.postId());
+        } else {
+            Post lastPost = page.get(page.size() - 1);
+            next = new FeedCursor(lastPost.getCreationDate(), lastPost.getId());
+        }
+        return new FeedPage<>(page, next.encode());
+    }
+
+    private void materialize(Long userId) {
+        if (materialized.contains(userId)) {
+            return;
+        }
+        if (!timelineStore.isMaterialized(userId)) {
+            rebuild(userId);
+            timelineStore.markMaterialized(userId);
+        }
+        materialized.add(userId);
+    }
+
+    /**
+     * Seeds a timeline from the connections' most recent posts, used for users whose timeline was never built.
+     * Posts pushed to the timeline before are kept, pushing one twice is a no-op.
+     */
+    public void rebuild(Long userId) {
+        List<Long> authorIds = new ArrayList<>(connectionRepository.findConnectedUserIds(userId, Status.ACCEPTED));
+        authorIds.removeAll(highFanOutAuthors);
+        if (authorIds.isEmpty()) {
+            return;
+        }
+        List<TimelineItem> items = postRepository.findFeedPage(authorIds, Limit.of(capacity)).stream()
+                .map(TimelineItem::of)
+                .toList();
+        if (!items.isEmpty()) {
+            timelineStore.pushAll(userId, items);
+        }
+    }
+
+    /**
+     * Copies the recent posts of {@code authorId} into the timeline of {@code userId}, after the two got connected.
+     */
+    public void backfill(Long userId, Long authorId) {
+        if (highFanOutAuthors.contains(authorId)) {
+            return;
+        }
+        List<TimelineItem> items = postRepository.findByAuthorIdOrderByCreationDateDescIdDesc(authorId, Limit.of(capacity)).stream()
+                .map(TimelineItem::of)
+                .toList();
+        if (!items.isEmpty()) {
+            timelineStore.pushAll(userId, items);
+        }
+    }
+
+    public void unlink(Long userId, Long authorId) {
+        timelineStore.removeAuthor(userId, authorId);
+    }
+
+    public void removePost(Long postId) {
+        timelineStore.removePost(postId);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelay = 10 * 60 * 1000)
+    public void refreshHighFanOutAuthors() {
+        List<Long> authorIds = connectionRepository.findUserIdsWithMoreConnectionsThan(Status.ACCEPTED.ordinal(), fanOutThreshold);
+        highFanOutAuthors.retainAll(authorIds);
+        highFanOutAuthors.addAll(authorIds);
+    }
+
+    private Map<Long, Post> loadPosts(List<TimelineItem> items) {
+        if (items.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Post> found = postRepository.findWithAuthorByIdIn(items.stream().map(TimelineItem::postId).toList()).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        // Keep timeline order, and drop entries whose post has been deleted in the meantime
+        Map<Long, Post> ordered = new LinkedHashMap<>();
+        for (TimelineItem item : items) {
+            Post post = found.get(item.postId());
+            if (post == null) {
+                timelineStore.removePost(item.postId());
+            } else {
+                ordered.put(post.getId(), post);
+            }
+        }
+        return ordered;
+    }
+
+    private List<Long> pulledAuthorsOf(Long userId) {
+        if (highFanOutAuthors.isEmpty()) {
+            return List.of();
+        }
+        List<Long> connectedUserIds = new ArrayList<>(connectionRepository.findConnectedUserIds(userId, Status.ACCEPTED));
+        connectedUserIds.retainAll(highFanOutAuthors);
+        return connectedUserIds;
+    }
+}
@@ -0,0 +1,33 @@
+package com.Backend.features.feed.service;
+
+import com.Backend.features.feed.dto.FeedCursor;
+import com.Backend.features.feed.dto.TimelineItem;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage for materialized home timelines. Selected with {@code feed.timeline.store} ({@code table} or {@code memory}).
+ */
+public interface TimelineStore {
+
+    void push(Collection<Long> userIds, TimelineItem item);
+
+    void pushAll(Long userId, Collection<TimelineItem> items);
+
+    /**
+     * Newest-first entries of a timeline, strictly older than {@code before} when it is given.
+     */
+    List<TimelineItem> range(Long userId, FeedCursor before, int limit);
+
+    void removePost(Long postId);
+
+    void removeAuthor(Long userId, Long authorId);
+
+    /**
+     * Whether the timeline of {@code userId} was seeded from the connections' posts, even if that found none.
+     */
+    boolean isMaterialized(Long userId);
+
+    void markMaterialized(Long userId);
+}
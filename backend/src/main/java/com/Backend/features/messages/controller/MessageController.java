@@ -1,8 +1,11 @@
 package com.Backend.features.messages.controller;
 
 
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
 import com.Backend.features.authentication.model.User;
+import com.Backend.features.messages.dto.ConversationSummary;
 import com.Backend.features.messages.dto.MessageDto;
+import com.Backend.features.messages.dto.MessagePage;
 import com.Backend.features.messages.model.Conversation;
 import com.Backend.features.messages.model.Message;
 import com.Backend.features.messages.service.MessageService;
@@ -23,13 +26,20 @@ public class MessageController {
     }
 
     @GetMapping("/conversations")
-    public List<Conversation> getConversations(@RequestAttribute("authenticatedUser") User user) {
-        return messageService.getConversationsOfUser(user);
+    public List<ConversationSummary> getConversations(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) {
+        return messageService.getConversationSummaries(principal.id());
     }
 
     @GetMapping("/conversations/{conversationId}")
-    public Conversation getConversation(@RequestAttribute("authenticatedUser") User user , @PathVariable Long conversationId){
-        return messageService.getConversation(user , conversationId);
+    public Conversation getConversation(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @PathVariable Long conversationId){
+        return messageService.getConversation(principal.id(), conversationId);
+    }
+
+    @GetMapping("/conversations/{conversationId}/messages")
+    public MessagePage getMessages(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @PathVariable Long conversationId,
+                                   @RequestParam(required = false) Long before,
+                                   @RequestParam(required = false) Integer limit) {
+        return messageService.getMessages(principal.id(), conversationId, before, limit);
     }
     @PostMapping("/conversations")
     public Conversation createConversationAndAddMessage(@RequestAttribute("authenticatedUser") User sender, @RequestBody MessageDto messageDto) {
@@ -40,9 +50,15 @@ public class MessageController {
     public Message addMessageToConversation(@RequestAttribute("authenticatedUser") User sender, @RequestBody MessageDto messageDto, @PathVariable Long conversationId) {
         return messageService.addMessageToConversation(conversationId, sender, messageDto.receiverId(), messageDto.content());
     }
+    @PutMapping("/conversations/{conversationId}/read/{messageId}")
+    public MessageDto markConversationReadUpTo(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @PathVariable Long conversationId, @PathVariable Long messageId) {
+        messageService.markConversationReadUpTo(principal.id(), conversationId, messageId);
+        return new MessageDto(principal.id(), "Messages marked as read");
+    }
+
     @PutMapping("/conversations/messages/{messageId}")
-    public MessageDto markMessageAsRead(@RequestAttribute("authenticatedUser") User user, @PathVariable Long messageId) {
-        messageService.markMessageAsRead(user, messageId);
-        return new MessageDto(user.getId(), "Message marked as read" );
+    public MessageDto markMessageAsRead(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @PathVariable Long messageId) {
+        messageService.markMessageAsRead(principal.id(), messageId);
+        return new MessageDto(principal.id(), "Message marked as read" );
     }
 }
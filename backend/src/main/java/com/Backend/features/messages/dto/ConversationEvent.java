@@ -0,0 +1,10 @@
+package com.Backend.features.messages.dto;
+
+/**
+ * Delta pushed on {@code /topic/users/{id}/conversations} whenever a conversation changes, instead of the whole
+ * conversation. {@code version} grows with every change of the conversation, so clients drop events older than
+ * what they already have. {@code lastMessage} is null when it didn't change; clients that don't know the
+ * conversation yet load it from the conversation list.
+ */
+public record ConversationEvent(Long id, ConversationSummary.LastMessage lastMessage, long unreadCount, long version) {
+}
@@ -0,0 +1,44 @@
+package com.Backend.features.messages.dto;
+
+import com.Backend.features.authentication.dto.UserCard;
+import com.Backend.features.messages.model.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a conversation for the conversation list: both participants, a preview of the last message and
+ * how many messages the viewer hasn't read, instead of the whole message history.
+ */
+public record ConversationSummary(
+        Long id,
+        UserCard author,
+        UserCard recipient,
+        LastMessage lastMessage,
+        long unreadCount
+) {
+
+    public static final int PREVIEW_LENGTH = 120;
+
+    // lastMessage is null for a conversation without messages
+    public record LastMessage(Long id, Long senderId, String preview, LocalDateTime createdAt) {
+
+        public static LastMessage of(Message message) {
+            String content = message.getContent();
+            String preview = content != null && content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+            return new LastMessage(message.getId(), message.getSender().getId(), preview, message.getCreatedAt());
+        }
+    }
+
+    // Flat form used by the JPQL constructor expression in ConversationRepository
+    public ConversationSummary(Long id,
+                               Long authorId, String authorFirstName, String authorLastName, String authorProfilePicture,
+                               Long recipientId, String recipientFirstName, String recipientLastName, String recipientProfilePicture,
+                               Long lastMessageId, Long lastMessageSenderId, String lastMessagePreview, LocalDateTime lastMessageCreatedAt,
+                               Long unreadCount) {
+        this(id,
+                new UserCard(authorId, authorFirstName, authorLastName, authorProfilePicture),
+                new UserCard(recipientId, recipientFirstName, recipientLastName, recipientProfilePicture),
+                lastMessageId == null ? null : new LastMessage(lastMessageId, lastMessageSenderId, lastMessagePreview, lastMessageCreatedAt),
+                unreadCount);
+    }
+}
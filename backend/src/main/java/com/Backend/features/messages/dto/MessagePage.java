@@ -0,0 +1,12 @@
+package com.Backend.features.messages.dto;
+
+import com.Backend.features.messages.model.Message;
+
+import java.util.List;
+
+/**
+ * One page of a conversation's history, newest message first. Pass {@code nextBefore} as {@code before} to get the
+ * older messages; it is null once the first message of the conversation is reached.
+ */
+public record MessagePage(List<Message> messages, Long nextBefore) {
+}
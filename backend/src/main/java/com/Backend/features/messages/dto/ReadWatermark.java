@@ -0,0 +1,8 @@
+package com.Backend.features.messages.dto;
+
+/**
+ * Pushed on {@code /topic/conversations/{id}/read} when a participant reads further: every message sent to
+ * {@code userId} with an id up to {@code readUpTo} is read.
+ */
+public record ReadWatermark(Long conversationId, Long userId, Long readUpTo, long version) {
+}
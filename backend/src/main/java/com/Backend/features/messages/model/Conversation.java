@@ -1,6 +1,7 @@
 package com.Backend.features.messages.model;
 
 import com.Backend.features.authentication.model.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 import java.util.ArrayList;
@@ -18,10 +19,19 @@ public class Conversation {
     @ManyToOne(optional = false)
     private User recipient;
 
+    // Never serialized, history is read in pages through MessageRepository
+    @JsonIgnore
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("createdAt ASC")
     private List<Message> messages = new ArrayList<>();
 
+    // Read watermarks: id of the last message each participant has read
+    private Long authorReadUpTo;
+    private Long recipientReadUpTo;
+
+    // Bumped by ConversationRepository.incrementVersion on every change pushed to clients
+    private Long version = 0L;
+
     public Conversation() {
     }
 
@@ -54,6 +64,30 @@ public class Conversation {
         this.recipient = recipient;
     }
 
+    public Long getAuthorReadUpTo() {
+        return authorReadUpTo;
+    }
+
+    public void setAuthorReadUpTo(Long authorReadUpTo) {
+        this.authorReadUpTo = authorReadUpTo;
+    }
+
+    public Long getRecipientReadUpTo() {
+        return recipientReadUpTo;
+    }
+
+    public void setRecipientReadUpTo(Long recipientReadUpTo) {
+        this.recipientReadUpTo = recipientReadUpTo;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<Message> getMessages() {
         return messages;
     }
@@ -9,6 +9,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity(name = "messages")
+@Table(indexes = @Index(name = "idx_messages_conversation_id", columnList = "conversation_id, id"))
 public class Message {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,7 +26,14 @@ public class Message {
     private Conversation conversation;
 
     private String content;
-    private Boolean isRead;
+    // Legacy read flag, only ReadWatermarkBackfill reads it to move the watermarks on Conversation past it
+    @JsonIgnore
+    @Column(name = "is_read")
+    private Boolean legacyRead;
+
+    // Whether the receiver's watermark covers this message, filled in by MessageService for the pages it returns
+    @Transient
+    private boolean isRead;
 
     @CreationTimestamp
     private LocalDateTime createdAt;
@@ -38,7 +46,6 @@ public class Message {
         this.receiver = receiver;
         this.conversation = conversation;
         this.content = content;
-        this.isRead = false;
     }
 
     public void setId(Long id) {
@@ -83,11 +90,11 @@ public class Message {
     }
 
 
-    public Boolean getIsRead() {
+    public boolean getIsRead() {
         return isRead;
     }
 
-    public void setIsRead(Boolean read) {
+    public void setIsRead(boolean read) {
         isRead = read;
     }
 
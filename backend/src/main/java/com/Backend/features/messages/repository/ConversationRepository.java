@@ -1,15 +1,53 @@
 package com.Backend.features.messages.repository;
 
 import com.Backend.features.authentication.model.User;
+import com.Backend.features.messages.dto.ConversationSummary;
 import com.Backend.features.messages.model.Conversation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface ConversationRepository extends JpaRepository<Conversation , Long> {
-    List<Conversation> findByAuthorOrRecipient(User userOne, User userTwo);
-
     Optional<Conversation> findByAuthorAndRecipient(User author, User recipient);
 
+    // One statement for the whole list: the last message is the highest id of each conversation, and the unread
+    // count only looks at messages sent to the viewer
+    @Query("SELECT new com.Backend.features.messages.dto.ConversationSummary(" +
+            "c.id, " +
+            "a.id, a.firstName, a.lastName, COALESCE(a.profilePictureVariants.thumbnailUrl, a.ProfilePicture), " +
+            "r.id, r.firstName, r.lastName, COALESCE(r.profilePictureVariants.thumbnailUrl, r.ProfilePicture), " +
+            "m.id, m.sender.id, SUBSTRING(m.content, 1, " + ConversationSummary.PREVIEW_LENGTH + "), m.createdAt, " +
+            "(SELECT COUNT(u) FROM messages u WHERE u.conversation.id = c.id AND u.receiver.id = :userId " +
+            "AND u.id > COALESCE(CASE WHEN a.id = :userId THEN c.authorReadUpTo ELSE c.recipientReadUpTo END, 0))) " +
+            "FROM Conversations c JOIN c.author a JOIN c.recipient r " +
+            "LEFT JOIN messages m ON m.conversation.id = c.id " +
+            "AND m.id = (SELECT MAX(x.id) FROM messages x WHERE x.conversation.id = c.id) " +
+            "WHERE a.id = :userId OR r.id = :userId " +
+            "ORDER BY m.id DESC NULLS LAST, c.id DESC")
+    List<ConversationSummary> findSummaries(@Param("userId") Long userId);
+
+    // Atomic, concurrent sends to the same conversation never get the same version
+    @Transactional
+    @Query(value = "UPDATE conversations SET version = COALESCE(version, 0) + 1 WHERE id = :id RETURNING version", nativeQuery = true)
+    long incrementVersion(@Param("id") Long id);
+
+    // Moves the participant's watermark forward to a message of this conversation, never back.
+    // Empty when nothing changed: not a participant, not a message of this conversation, or already read
+    @Transactional
+    @Query(value = """
+            UPDATE conversations SET
+                   author_read_up_to = CASE WHEN author_id = :userId THEN :messageId ELSE author_read_up_to END,
+                   recipient_read_up_to = CASE WHEN recipient_id = :userId THEN :messageId ELSE recipient_read_up_to END,
+                   version = COALESCE(version, 0) + 1
+             WHERE id = :id
+               AND (author_id = :userId OR recipient_id = :userId)
+               AND :messageId > COALESCE(CASE WHEN author_id = :userId THEN author_read_up_to ELSE recipient_read_up_to END, 0)
+               AND EXISTS (SELECT 1 FROM messages m WHERE m.id = :messageId AND m.conversation_id = :id)
+            RETURNING version
+            """, nativeQuery = true)
+    List<Long> advanceReadWatermark(@Param("id") Long id, @Param("userId") Long userId, @Param("messageId") Long messageId);
 }
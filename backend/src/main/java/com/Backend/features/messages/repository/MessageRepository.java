@@ -1,7 +1,31 @@
 package com.Backend.features.messages.repository;
 
 import com.Backend.features.messages.model.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message ,Long> {
+
+    // Keyset pages over idx_messages_conversation_id, newest first. Ids grow with createdAt
+    @Query("SELECT m FROM messages m JOIN FETCH m.sender JOIN FETCH m.receiver " +
+            "WHERE m.conversation.id = :conversationId " +
+            "ORDER BY m.id DESC")
+    List<Message> findLatest(@Param("conversationId") Long conversationId, Limit limit);
+
+    @Query("SELECT m FROM messages m JOIN FETCH m.sender JOIN FETCH m.receiver " +
+            "WHERE m.conversation.id = :conversationId AND m.id < :before " +
+            "ORDER BY m.id DESC")
+    List<Message> findLatestBefore(@Param("conversationId") Long conversationId,
+                                   @Param("before") Long before,
+                                   Limit limit);
+
+    // Messages after the receiver's read watermark
+    @Query("SELECT COUNT(m) FROM messages m JOIN m.conversation c " +
+            "WHERE c.id = :conversationId AND m.receiver.id = :receiverId " +
+            "AND m.id > COALESCE(CASE WHEN c.author.id = :receiverId THEN c.authorReadUpTo ELSE c.recipientReadUpTo END, 0)")
+    long countUnread(@Param("conversationId") Long conversationId, @Param("receiverId") Long receiverId);
 }
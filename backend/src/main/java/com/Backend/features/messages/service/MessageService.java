@@ -2,11 +2,16 @@ package com.Backend.features.messages.service;
 
 import com.Backend.features.authentication.model.User;
 import com.Backend.features.authentication.service.AuthService;
+import com.Backend.features.messages.dto.ConversationEvent;
+import com.Backend.features.messages.dto.ConversationSummary;
+import com.Backend.features.messages.dto.MessagePage;
+import com.Backend.features.messages.dto.ReadWatermark;
 import com.Backend.features.messages.model.Conversation;
 import com.Backend.features.messages.model.Message;
 import com.Backend.features.messages.repository.ConversationRepository;
 import com.Backend.features.messages.repository.MessageRepository;
 import com.Backend.features.notifications.service.NotificationService;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +21,9 @@ import java.util.List;
 @Service
 public class
 MessageService {
+    public static final int DEFAULT_PAGE_SIZE = 30;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ConversationRepository conversationRepository;
     private final MessageRepository messageRepository;
     private final AuthService authenticationService;
@@ -28,18 +36,41 @@ MessageService {
         this.notificationService = notificationService;
     }
 
-    public List<Conversation> getConversationsOfUser(User user) {
-        return conversationRepository.findByAuthorOrRecipient(user, user);
+    public List<ConversationSummary> getConversationSummaries(Long userId) {
+        return conversationRepository.findSummaries(userId);
     }
 
-    public Conversation getConversation(User user, Long conversationId) {
+    public Conversation getConversation(Long userId, Long conversationId) {
         Conversation conversation = conversationRepository.findById(conversationId).orElseThrow(() -> new IllegalArgumentException("Conversation not found"));
-        if (!conversation.getAuthor().getId().equals(user.getId()) && !conversation.getRecipient().getId().equals(user.getId())) {
+        if (!conversation.getAuthor().getId().equals(userId) && !conversation.getRecipient().getId().equals(userId)) {
             throw new IllegalArgumentException("User not authorized to view conversation");
         }
         return conversation;
     }
 
+    // Pages backwards from the newest message, before is the id of the oldest message the client already has
+    public MessagePage getMessages(Long userId, Long conversationId, Long before, Integer limit) {
+        Conversation conversation = getConversation(userId, conversationId);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Message> messages = before == null
+                ? messageRepository.findLatest(conversationId, fetchLimit)
+                : messageRepository.findLatestBefore(conversationId, before, fetchLimit);
+
+        for (Message message : messages) {
+            Long readUpTo = message.getReceiver().getId().equals(conversation.getAuthor().getId())
+                    ? conversation.getAuthorReadUpTo()
+                    : conversation.getRecipientReadUpTo();
+            message.setIsRead(readUpTo != null && message.getId() <= readUpTo);
+        }
+
+        if (messages.size() <= pageSize) {
+            return new MessagePage(messages, null);
+        }
+        List<Message> page = messages.subList(0, pageSize);
+        return new MessagePage(page, page.get(pageSize - 1).getId());
+    }
+
     @Transactional
     public Conversation createConversationAndAddMessage(User sender, Long receiverId, String content) {
         User receiver = authenticationService.getUserById(receiverId);
@@ -62,11 +93,11 @@ MessageService {
         Conversation conversation = conversationRepository.save(new Conversation(sender, receiver));
         Message message = new Message(sender, receiver, conversation, content);
         messageRepository.save(message);
-        conversation.getMessages().add(message);
-        notificationService.sendConversationToUsers(sender.getId(), receiver.getId(), conversation);
+        publishConversationChange(conversation, message);
         return conversation;
     }
 
+    @Transactional
     public Message addMessageToConversation(Long conversationId, User sender, Long receiverId, String content) {
         User receiver = authenticationService.getUserById(receiverId);
         Conversation conversation = conversationRepository.findById(conversationId).orElseThrow(() -> new IllegalArgumentException("Conversation not found"));
@@ -81,26 +112,44 @@ MessageService {
 
         Message message = new Message(sender, receiver, conversation, content);
         messageRepository.save(message);
-        conversation.getMessages().add(message);
         notificationService.sendMessageToConversation(conversation.getId(), message);
-        notificationService.sendConversationToUsers(sender.getId(), receiver.getId(), conversation);
+        publishConversationChange(conversation, message);
         return message;
     }
 
-    public void markMessageAsRead(User user, Long messageId) {
+    public void markMessageAsRead(Long userId, Long messageId) {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new IllegalArgumentException("Message not found"));
 
-        if (!message.getReceiver().getId().equals(user.getId())) {
+        if (!message.getReceiver().getId().equals(userId)) {
             throw new IllegalArgumentException("User not authorized to mark message as read");
         }
 
-        if (!message.getIsRead()) {
-            message.setIsRead(true);
-            messageRepository.save(message);
+        markConversationReadUpTo(userId, message.getConversation().getId(), messageId);
+    }
+
+    // Reading a message reads everything before it: one UPDATE whatever the number of unread messages
+    @Transactional
+    public void markConversationReadUpTo(Long userId, Long conversationId, Long messageId) {
+        List<Long> versions = conversationRepository.advanceReadWatermark(conversationId, userId, messageId);
+        if (versions.isEmpty()) {
+            return;
+        }
+
+        long version = versions.get(0);
+        notificationService.sendReadWatermark(conversationId, new ReadWatermark(conversationId, userId, messageId, version));
+        // Only the reader's unread count changed
+        notificationService.sendConversationEvent(userId, new ConversationEvent(
+                conversationId, null, messageRepository.countUnread(conversationId, userId), version));
+    }
 
-            // ✅ Broadcast the updated message over WebSocket
-            notificationService.sendMessageToConversation(message.getConversation().getId(), message);
+    // Each participant gets its own unread count, the rest of the event is the same for both
+    private void publishConversationChange(Conversation conversation, Message lastMessage) {
+        long version = conversationRepository.incrementVersion(conversation.getId());
+        ConversationSummary.LastMessage preview = ConversationSummary.LastMessage.of(lastMessage);
+        for (User participant : List.of(conversation.getAuthor(), conversation.getRecipient())) {
+            notificationService.sendConversationEvent(participant.getId(), new ConversationEvent(
+                    conversation.getId(), preview, messageRepository.countUnread(conversation.getId(), participant.getId()), version));
         }
     }
 }
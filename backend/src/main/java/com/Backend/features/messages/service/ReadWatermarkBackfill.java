@@ -0,0 +1,55 @@
+package com.Backend.features.messages.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Unread counts only look at the read watermarks on conversations. Messages marked read one by one before the
+ * watermarks existed still carry the legacy is_read flag: this moves each receiver's watermark up to the newest of
+ * them and clears the flags, so the next start finds nothing to do. Runs once the schema is up to date and before
+ * the application serves requests; nodes starting together are harmless, watermarks only ever move forward.
+ */
+@Component
+public class ReadWatermarkBackfill implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWatermarkBackfill.class);
+
+    private static final String ADVANCE_WATERMARKS = """
+            UPDATE conversations c SET
+                   author_read_up_to = GREATEST(COALESCE(c.author_read_up_to, 0), COALESCE(r.author_read, 0)),
+                   recipient_read_up_to = GREATEST(COALESCE(c.recipient_read_up_to, 0), COALESCE(r.recipient_read, 0))
+              FROM (SELECT m.conversation_id,
+                           MAX(m.id) FILTER (WHERE m.receiver_id = cv.author_id) AS author_read,
+                           MAX(m.id) FILTER (WHERE m.receiver_id = cv.recipient_id) AS recipient_read
+                      FROM messages m JOIN conversations cv ON cv.id = m.conversation_id
+                     WHERE m.is_read
+                     GROUP BY m.conversation_id) r
+             WHERE c.id = r.conversation_id
+            """;
+    private static final String CLEAR_FLAGS = "UPDATE messages SET is_read = NULL WHERE is_read";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReadWatermarkBackfill(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Integer conversations = transactionTemplate.execute(status -> {
+            int advanced = jdbcTemplate.update(ADVANCE_WATERMARKS);
+            jdbcTemplate.update(CLEAR_FLAGS);
+            return advanced;
+        });
+        if (conversations != null && conversations > 0) {
+            log.info("Moved the read watermarks of {} conversations past their legacy read messages", conversations);
+        }
+    }
+}
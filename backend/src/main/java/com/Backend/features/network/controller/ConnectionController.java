@@ -1,10 +1,13 @@
 package com.Backend.features.network.controller;
 
 
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
+import com.Backend.features.authentication.dto.UserCard;
 import com.Backend.features.authentication.model.User;
 import com.Backend.features.network.model.Connection;
 import com.Backend.features.network.model.Status;
 import com.Backend.features.network.service.ConnectionService;
+import com.Backend.features.network.service.RecommendationService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -15,9 +18,11 @@ import java.util.List;
 public class ConnectionController {
 
     private final ConnectionService connectionService;
+    private final RecommendationService recommendationService;
 
-    public ConnectionController(ConnectionService connectionService) {
+    public ConnectionController(ConnectionService connectionService, RecommendationService recommendationService) {
         this.connectionService = connectionService;
+        this.recommendationService = recommendationService;
     }
 
     @GetMapping("/connections")
@@ -39,23 +44,28 @@ public class ConnectionController {
     }
 
     @PutMapping("/connections/{id}")
-    public Connection acceptConnectionRequest(@RequestAttribute("authenticatedUser") User recipient, @PathVariable Long id) {
-        return connectionService.acceptConnectionRequest(recipient, id);
+    public Connection acceptConnectionRequest(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @PathVariable Long id) {
+        return connectionService.acceptConnectionRequest(principal.id(), id);
     }
 
     @DeleteMapping("/connections/{id}")
-    public Connection rejectOrCancelConnection(@RequestAttribute("authenticatedUser") User recipient, @PathVariable Long id) {
-        return connectionService.rejectOrCancelConnection(recipient, id);
+    public Connection rejectOrCancelConnection(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @PathVariable Long id) {
+        return connectionService.rejectOrCancelConnection(principal.id(), id);
     }
 
     @PutMapping("/connections/{id}/seen")
-    public Connection markConnectionAsSeen(@RequestAttribute("authenticatedUser") User user, @PathVariable Long id) {
-        return connectionService.markConnectionAsSeen(user, id);
+    public Connection markConnectionAsSeen(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @PathVariable Long id) {
+        return connectionService.markConnectionAsSeen(principal.id(), id);
     }
 
     @GetMapping("/suggestions")
-    public List<User> getConnectionSuggestions(@RequestAttribute("authenticatedUser") User user, @RequestParam(required = false, defaultValue = "6") Integer limit) {
-        return connectionService.getRecommendations(user.getId(), limit);
+    public List<User> getConnectionSuggestions(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @RequestParam(required = false, defaultValue = "6") Integer limit) {
+        return recommendationService.getRecommendations(principal.id(), limit);
+    }
+
+    @GetMapping("/suggestions/all")
+    public List<UserCard> getAllConnectionSuggestions(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @RequestParam(required = false) Long after, @RequestParam(required = false, defaultValue = "20") Integer limit) {
+        return connectionService.getConnectionSuggestions(principal.id(), after, limit);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.Backend.features.network.dto;
+
+import com.Backend.features.network.model.Status;
+
+public record ConnectionEdge(Long authorId, Long recipientId, Status status) {
+}
@@ -9,6 +9,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity(name = "connections")
+@Table(indexes = {
+        @Index(name = "idx_connections_author_recipient", columnList = "author_id, recipient_id"),
+        @Index(name = "idx_connections_recipient_author", columnList = "recipient_id, author_id")
+})
 public class Connection {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
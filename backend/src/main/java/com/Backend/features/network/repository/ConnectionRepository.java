@@ -1,6 +1,7 @@
 package com.Backend.features.network.repository;
 
 import com.Backend.features.authentication.model.User;
+import com.Backend.features.network.dto.ConnectionEdge;
 import com.Backend.features.network.model.Connection;
 import com.Backend.features.network.model.Status;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -30,5 +31,27 @@ public interface ConnectionRepository extends JpaRepository<Connection, Long> {
     List<Connection> findAllByUser(@Param("user") User user);
 
 
+    @Query("""
+        SELECT CASE WHEN c.author.id = :userId THEN c.recipient.id ELSE c.author.id END
+          FROM connections c
+         WHERE (c.author.id = :userId OR c.recipient.id = :userId)
+           AND c.status = :status
+    """)
+    List<Long> findConnectedUserIds(@Param("userId") Long userId, @Param("status") Status status);
+
+    // status is persisted as its ordinal
+    @Query(value = """
+        SELECT x.user_id
+          FROM (SELECT author_id AS user_id FROM connections WHERE status = :status
+                UNION ALL
+                SELECT recipient_id AS user_id FROM connections WHERE status = :status) x
+         GROUP BY x.user_id
+        HAVING COUNT(*) > :threshold
+    """, nativeQuery = true)
+    List<Long> findUserIdsWithMoreConnectionsThan(@Param("status") int status, @Param("threshold") long threshold);
+
+    @Query("SELECT new com.Backend.features.network.dto.ConnectionEdge(c.author.id, c.recipient.id, c.status) FROM connections c")
+    List<ConnectionEdge> findAllEdges();
+
     List<Connection> findByAuthorIdAndStatusOrRecipientIdAndStatus(Long authenticatedUserId, Status status, Long authenticatedUserId1, Status status1);
 }
@@ -0,0 +1,218 @@
+package com.Backend.features.network.service;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Connection suggestions, precomputed per user as a ranked list of ids.
+ * Entries expire after {@code networking.recommendations.ttl} and are dropped as soon as a connection or profile
+ * change touches the user or their connections. Users read within the last TTL are recomputed ahead of expiry.
+ */
+@Service
+public class RecommendationService {
+
+    public static final int MAX_RECOMMENDATIONS = 50;
+    private static final int CANDIDATE_POOL_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final SocialGraphIndex socialGraphIndex;
+    private final long ttlMillis;
+    private final Map<Long, CachedRecommendations> cache = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public RecommendationService(UserRepository userRepository, SocialGraphIndex socialGraphIndex,
+                                 @Value("${networking.recommendations.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.socialGraphIndex = socialGraphIndex;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public List<User> getRecommendations(Long userId, int limit) {
+        long now = System.currentTimeMillis();
+        CachedRecommendations cached = cache.get(userId);
+        List<Long> rankedIds;
+        if (cached == null || cached.userIds == null || cached.expiresAt <= now) {
+            rankedIds = refresh(userId, now);
+        } else {
+            cached.lastReadAt = now;
+            rankedIds = cached.userIds;
+        }
+
+        List<Long> userIds = rankedIds.subList(0, Math.min(Math.max(limit, 0), rankedIds.size()));
+        Map<Long, User> usersById = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * A connection between the two users was requested, accepted or removed: their own candidates change,
+     * as do the second degree candidates and mutual counts of everyone connected to them.
+     */
+    public void connectionChanged(Long firstUserId, Long secondUserId) {
+        invalidateWithConnections(firstUserId);
+        invalidateWithConnections(secondUserId);
+    }
+
+    public void profileChanged(Long userId) {
+        invalidateWithConnections(userId);
+    }
+
+    public void userDeleted(Long userId) {
+        invalidateWithConnections(userId);
+        cache.remove(userId);
+    }
+
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void refreshHotUsers() {
+        long now = System.currentTimeMillis();
+        long refreshBefore = now + Math.min(ttlMillis / 4, 60 * 1000);
+        for (Map.Entry<Long, CachedRecommendations> entry : cache.entrySet()) {
+            CachedRecommendations cached = entry.getValue();
+            boolean hot = cached.lastReadAt > now - ttlMillis;
+            if (!hot) {
+                cache.remove(entry.getKey(), cached);
+            } else if (cached.userIds == null || cached.expiresAt <= refreshBefore) {
+                refresh(entry.getKey(), cached.lastReadAt);
+            }
+        }
+    }
+
+    private void invalidateWithConnections(Long userId) {
+        invalidate(userId);
+        for (long connectedId : socialGraphIndex.acceptedOf(userId)) {
+            invalidate(connectedId);
+        }
+    }
+
+    // Leaves a marker rather than removing the entry, so a computation that started before the change is not stored
+    private void invalidate(Long userId) {
+        long invalidatedAt = epoch.incrementAndGet();
+        cache.compute(userId, (id, cached) -> CachedRecommendations.invalidated(invalidatedAt, cached == null ? 0 : cached.lastReadAt));
+    }
+
+    private List<Long> refresh(Long userId, long lastReadAt) {
+        long startedAt = epoch.get();
+        List<Long> userIds = computeRecommendationIds(userId);
+        CachedRecommendations computed = new CachedRecommendations(userIds, startedAt, System.currentTimeMillis() + ttlMillis);
+        computed.lastReadAt = lastReadAt;
+        // Anything written since we started is either a newer result or an invalidation our result predates
+        cache.compute(userId, (id, cached) -> cached == null || cached.version <= startedAt ? computed : cached);
+        return userIds;
+    }
+
+    private List<Long> computeRecommendationIds(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        List<Long> candidateIds = mostMutualCandidates(userId);
+
+        // No second degree connections: fall back to a bounded pool of unconnected complete profiles
+        if (candidateIds.isEmpty()) {
+            long[] related = socialGraphIndex.relatedOf(userId);
+            candidateIds = userRepository.findCompleteProfileIdsExcept(userId, Limit.of(CANDIDATE_POOL_SIZE + related.length)).stream()
+                    .filter(id -> Arrays.binarySearch(related, id) < 0)
+                    .toList();
+        }
+
+        // Min-heap holding the best MAX_RECOMMENDATIONS seen so far
+        PriorityQueue<UserRecommendation> best = new PriorityQueue<>(Comparator.comparingDouble(UserRecommendation::score));
+        for (User potentialConnection : userRepository.findAllById(candidateIds)) {
+            if (!potentialConnection.getProfileComplete()) {
+                continue;
+            }
+
+            double score = calculateProfileSimilarity(user, potentialConnection);
+            score += socialGraphIndex.countMutual(userId, potentialConnection.getId()) * 0.5;
+
+            best.offer(new UserRecommendation(potentialConnection.getId(), score));
+            if (best.size() > MAX_RECOMMENDATIONS) {
+                best.poll();
+            }
+        }
+
+        List<Long> recommendations = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            recommendations.add(best.poll().userId());
+        }
+        Collections.reverse(recommendations);
+        return List.copyOf(recommendations);
+    }
+
+    // Second degree connections, capped to the CANDIDATE_POOL_SIZE with the most mutual connections
+    private List<Long> mostMutualCandidates(Long userId) {
+        long[] secondDegree = socialGraphIndex.secondDegreeOf(userId);
+        if (secondDegree.length <= CANDIDATE_POOL_SIZE) {
+            return Arrays.stream(secondDegree).boxed().toList();
+        }
+
+        PriorityQueue<MutualCandidate> best = new PriorityQueue<>(Comparator.comparingInt(MutualCandidate::mutualConnections));
+        for (long candidateId : secondDegree) {
+            best.offer(new MutualCandidate(candidateId, socialGraphIndex.countMutual(userId, candidateId)));
+            if (best.size() > CANDIDATE_POOL_SIZE) {
+                best.poll();
+            }
+        }
+        return best.stream().map(MutualCandidate::userId).toList();
+    }
+
+    private double calculateProfileSimilarity(User user1, User user2) {
+        double score = 0.0;
+
+        // ✅ Add null checks to prevent NullPointerException
+        if (user1.getHobbies() != null && user2.getHobbies() != null &&
+                user1.getHobbies().equals(user2.getHobbies())) {
+            score += 3.0;
+        }
+
+        if (user1.getBio() != null && user2.getBio() != null &&
+                user1.getBio().equalsIgnoreCase(user2.getBio())) {
+            score += 5.0;
+        }
+
+        if (user1.getNativeLanguage() != null && user2.getNativeLanguage() != null &&
+                user1.getNativeLanguage().equals(user2.getNativeLanguage())) {
+            score += 1.5;
+        }
+
+        return score;
+    }
+
+    private static final class CachedRecommendations {
+        private final List<Long> userIds;
+        private final long version;
+        private final long expiresAt;
+        private volatile long lastReadAt;
+
+        private CachedRecommendations(List<Long> userIds, long version, long expiresAt) {
+            this.userIds = userIds;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+
+        private static CachedRecommendations invalidated(long version, long lastReadAt) {
+            CachedRecommendations marker = new CachedRecommendations(null, version, 0);
+            marker.lastReadAt = lastReadAt;
+            return marker;
+        }
+    }
+
+    private record MutualCandidate(Long userId, int mutualConnections) {
+    }
+
+    private record UserRecommendation(Long userId, double score) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.Backend.features.network.service;
+
+import com.Backend.features.network.dto.ConnectionEdge;
+import com.Backend.features.network.model.Status;
+import com.Backend.features.network.repository.ConnectionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory adjacency of the connection graph, as sorted {@code long[]} id sets per user.
+ * "accepted" holds accepted connections only, "related" holds every user with a pending or accepted connection.
+ * Kept in sync by ConnectionService and fully reloaded every 15 minutes to pick up changes made by other nodes.
+ * Changes made while a reload is reading the edges are kept aside and re-applied to the new maps before they are
+ * swapped in, otherwise the reload would bring back a connection that was just removed, or lose one just made.
+ */
+@Component
+public class SocialGraphIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SocialGraphIndex.class);
+    private static final long[] EMPTY = new long[0];
+
+    private final ConnectionRepository connectionRepository;
+    private final Object reloadLock = new Object();
+    private volatile Map<Long, long[]> accepted = new ConcurrentHashMap<>();
+    private volatile Map<Long, long[]> related = new ConcurrentHashMap<>();
+    // Non-null while a reload runs, guarded by this
+    private List<Change> pending;
+
+    public SocialGraphIndex(ConnectionRepository connectionRepository) {
+        this.connectionRepository = connectionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = 15 * 60 * 1000, fixedDelay = 15 * 60 * 1000)
+    public void reload() {
+        // The startup and the scheduled reload must not share one change log
+        synchronized (reloadLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            try {
+                Map<Long, List<Long>> acceptedLists = new HashMap<>();
+                Map<Long, List<Long>> relatedLists = new HashMap<>();
+                List<ConnectionEdge> edges = connectionRepository.findAllEdges();
+                for (ConnectionEdge edge : edges) {
+                    link(relatedLists, edge.authorId(), edge.recipientId());
+                    if (edge.status() == Status.ACCEPTED) {
+                        link(acceptedLists, edge.authorId(), edge.recipientId());
+                    }
+                }
+                Map<Long, long[]> loadedAccepted = toSortedSets(acceptedLists);
+                Map<Long, long[]> loadedRelated = toSortedSets(relatedLists);
+                synchronized (this) {
+                    // Changes are idempotent, replaying one the snapshot already contains is harmless
+                    pending.forEach(change -> change.applyTo(loadedAccepted, loadedRelated));
+                    accepted = loadedAccepted;
+                    related = loadedRelated;
+                }
+                log.info("Social graph index loaded with {} connections", edges.size());
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    public long[] acceptedOf(Long userId) {
+        return accepted.getOrDefault(userId, EMPTY);
+    }
+
+    public long[] relatedOf(Long userId) {
+        return related.getOrDefault(userId, EMPTY);
+    }
+
+    public int countMutual(Long firstUserId, Long secondUserId) {
+        return intersectionSize(acceptedOf(firstUserId), acceptedOf(secondUserId));
+    }
+
+    /**
+     * Accepted connections of accepted connections, minus the user and anyone they already have a connection with.
+     */
+    public long[] secondDegreeOf(Long userId) {
+        long[] excluded = relatedOf(userId);
+        Set<Long> candidates = new HashSet<>();
+        for (long directId : acceptedOf(userId)) {
+            for (long candidateId : acceptedOf(directId)) {
+                if (candidateId != userId && Arrays.binarySearch(excluded, candidateId) < 0) {
+                    candidates.add(candidateId);
+                }
+            }
+        }
+        return candidates.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    public void requested(Long authorId, Long recipientId) {
+        apply((acceptedSets, relatedSets) -> addEdge(relatedSets, authorId, recipientId));
+    }
+
+    public void accepted(Long authorId, Long recipientId) {
+        apply((acceptedSets, relatedSets) -> {
+            addEdge(relatedSets, authorId, recipientId);
+            addEdge(acceptedSets, authorId, recipientId);
+        });
+    }
+
+    public void removed(Long authorId, Long recipientId) {
+        apply((acceptedSets, relatedSets) -> {
+            removeEdge(relatedSets, authorId, recipientId);
+            removeEdge(acceptedSets, authorId, recipientId);
+        });
+    }
+
+    public void userDeleted(Long userId) {
+        apply((acceptedSets, relatedSets) -> {
+            for (long otherId : relatedSets.getOrDefault(userId, EMPTY)) {
+                removeEdge(relatedSets, userId, otherId);
+                removeEdge(acceptedSets, userId, otherId);
+            }
+            relatedSets.remove(userId);
+            acceptedSets.remove(userId);
+        });
+    }
+
+    private synchronized void apply(Change change) {
+        change.applyTo(accepted, related);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    static int intersectionSize(long[] first, long[] second) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    private static void link(Map<Long, List<Long>> lists, Long firstId, Long secondId) {
+        lists.computeIfAbsent(firstId, id -> new ArrayList<>()).add(secondId);
+        lists.computeIfAbsent(secondId, id -> new ArrayList<>()).add(firstId);
+    }
+
+    private static Map<Long, long[]> toSortedSets(Map<Long, List<Long>> lists) {
+        Map<Long, long[]> sets = new ConcurrentHashMap<>(lists.size());
+        lists.forEach((userId, ids) -> sets.put(userId, ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray()));
+        return sets;
+    }
+
+    private static void addEdge(Map<Long, long[]> sets, Long firstId, Long secondId) {
+        sets.compute(firstId, (id, ids) -> insert(ids == null ? EMPTY : ids, secondId));
+        sets.compute(secondId, (id, ids) -> insert(ids == null ? EMPTY : ids, firstId));
+    }
+
+    private static void removeEdge(Map<Long, long[]> sets, Long firstId, Long secondId) {
+        sets.computeIfPresent(firstId, (id, ids) -> delete(ids, secondId));
+        sets.computeIfPresent(secondId, (id, ids) -> delete(ids, firstId));
+    }
+
+    // Arrays are never mutated in place, readers may still hold the previous copy
+    private static long[] insert(long[] ids, long value) {
+        int index = Arrays.binarySearch(ids, value);
+        if (index >= 0) {
+            return ids;
+        }
+        int insertAt = -index - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, insertAt);
+        copy[insertAt] = value;
+        System.arraycopy(ids, insertAt, copy, insertAt + 1, ids.length - insertAt);
+        return copy;
+    }
+
+    private static long[] delete(long[] ids, long value) {
+        int index = Arrays.binarySearch(ids, value);
+        if (index < 0) {
+            return ids;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, index);
+        System.arraycopy(ids, index + 1, copy, index, ids.length - index - 1);
+        return copy.length == 0 ? null : copy;
+    }
+
+    @FunctionalInterface
+    private interface Change {
+        void applyTo(Map<Long, long[]> acceptedSets, Map<Long, long[]> relatedSets);
+    }
+}
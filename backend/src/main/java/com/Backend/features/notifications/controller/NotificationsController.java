@@ -1,6 +1,8 @@
 package com.Backend.features.notifications.controller;
 
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
 import com.Backend.features.authentication.model.User;
+import com.Backend.features.notifications.dto.NotificationPage;
 import com.Backend.features.notifications.model.Notifications;
 import com.Backend.features.notifications.service.NotificationService;
 import org.springframework.web.bind.annotation.*;
@@ -24,8 +26,25 @@ public class NotificationsController {
         return notificationService.getUserNotification(user);
     }
 
+    @GetMapping("/page")
+    public NotificationPage getInbox(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal,
+                                     @RequestParam(required = false) String before,
+                                     @RequestParam(required = false) Integer limit) {
+        return notificationService.getInbox(principal.id(), before, limit);
+    }
+
+    @GetMapping("/unread-count")
+    public long getUnreadCount(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) {
+        return notificationService.getUnreadCount(principal.id());
+    }
+
+    @PutMapping("/read")
+    public void markAllNotificationsAsRead(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) {
+        notificationService.markAllNotificationsAsRead(principal.id());
+    }
+
     @PutMapping("/{notificationId}")
-    public Notifications markNotificationAsRead(@PathVariable Long notificationId) {
-        return notificationService.markNotificationAsRead(notificationId);
+    public Notifications markNotificationAsRead(@RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal, @PathVariable Long notificationId) {
+        return notificationService.markNotificationAsRead(principal.id(), notificationId);
     }
 }
@@ -0,0 +1,10 @@
+package com.Backend.features.notifications.dto;
+
+import java.util.List;
+
+/**
+ * One page of the inbox, latest activity first. Pass {@code nextBefore} as {@code before} for the next page; it is an
+ * opaque cursor, null once the oldest notification is reached.
+ */
+public record NotificationPage(List<NotificationView> notifications, String nextBefore, long unreadCount) {
+}
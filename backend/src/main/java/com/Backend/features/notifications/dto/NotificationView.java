@@ -0,0 +1,32 @@
+package com.Backend.features.notifications.dto;
+
+import com.Backend.features.authentication.dto.UserCard;
+import com.Backend.features.notifications.model.NotificationType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a notification for the inbox: the sender as a {@link UserCard} and no recipient, which is the viewer.
+ * Grouped notifications read as "sender and actorCount - 1 others".
+ */
+public record NotificationView(
+        Long id,
+        NotificationType type,
+        Long resourceId,
+        boolean read,
+        LocalDateTime creationDate,
+        LocalDateTime lastActivity,
+        UserCard sender,
+        int actorCount,
+        Long[] sampleActorIds
+) {
+
+    // Flat form used by the JPQL constructor expression in NotificationsRepository
+    public NotificationView(Long id, NotificationType type, Long resourceId, Boolean read, LocalDateTime creationDate,
+                            LocalDateTime lastActivity, Long senderId, String senderFirstName, String senderLastName, String senderProfilePicture,
+                            Integer actorCount, Long[] sampleActorIds) {
+        this(id, type, resourceId, read, creationDate, lastActivity,
+                new UserCard(senderId, senderFirstName, senderLastName, senderProfilePicture),
+                actorCount, sampleActorIds);
+    }
+}
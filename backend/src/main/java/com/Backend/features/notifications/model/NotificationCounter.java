@@ -0,0 +1,35 @@
+package com.Backend.features.notifications.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Number of unread notifications of a user, kept up to date by {@code UnreadNotificationCounter} as notifications
+ * are stored and read, so the badge never has to count the notifications table.
+ */
+@Entity(name = "notification_counters")
+public class NotificationCounter {
+    @Id
+    private Long userId;
+
+    private long unreadCount;
+
+    public NotificationCounter() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
@@ -1,13 +1,22 @@
 package com.Backend.features.notifications.model;
 
 import com.Backend.features.authentication.model.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
 @Entity(name = "notifications")
+@Table(indexes = @Index(name = "idx_notifications_recipient_activity", columnList = "recipient_id, last_activity, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_notifications_group",
+                columnNames = {"recipient_id", "type", "resource_id", "window_start"}))
 public class Notifications {
+    // The table's primary key is (id, window_start) once NotificationPartitions has converted it, since Postgres
+    // wants the partition key in every unique constraint. id alone still identifies a row: every partition takes
+    // it from the one notifications_partitioned_id_seq and the copy keeps the old ids, so it is mapped as the id
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -21,8 +30,18 @@ public class Notifications {
     private NotificationType type;
     private Long resourceId;
 
+    // Actions on the same (recipient, type, resourceId) within one aggregation window share a row:
+    // sender is the latest actor, actorCount how many there were and sampleActorIds the latest few
+    @JsonIgnore
+    private LocalDateTime windowStart;
+    private Integer actorCount = 1;
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private Long[] sampleActorIds;
+
     @CreationTimestamp
     private LocalDateTime creationDate;
+    // Bumped whenever another action joins the group, the inbox is ordered by it
+    private LocalDateTime lastActivity;
 
     public Long getId() {
         return id;
@@ -72,6 +91,30 @@ public class Notifications {
         this.resourceId = resourceId;
     }
 
+    public LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(LocalDateTime windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public int getActorCount() {
+        return actorCount == null ? 1 : actorCount;
+    }
+
+    public void setActorCount(Integer actorCount) {
+        this.actorCount = actorCount;
+    }
+
+    public Long[] getSampleActorIds() {
+        return sampleActorIds;
+    }
+
+    public void setSampleActorIds(Long[] sampleActorIds) {
+        this.sampleActorIds = sampleActorIds;
+    }
+
     public Notifications() {
     }
 
@@ -83,6 +126,14 @@ public class Notifications {
         this.creationDate = creationDate;
     }
 
+    public LocalDateTime getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(LocalDateTime lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+
     public Notifications(User recipient, User sender,NotificationType type, Long resourceId) {
         this.sender = sender;
         this.recipient = recipient;
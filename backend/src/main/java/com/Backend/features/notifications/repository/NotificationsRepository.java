@@ -1,11 +1,35 @@
 package com.Backend.features.notifications.repository;
 
 import com.Backend.features.authentication.model.User;
+import com.Backend.features.notifications.dto.NotificationView;
 import com.Backend.features.notifications.model.Notifications;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface NotificationsRepository extends JpaRepository<Notifications,Long> {
     List<Notifications> findByRecipientOrderByCreationDateDesc(User user);
+
+    String NOTIFICATION_VIEW = "SELECT new com.Backend.features.notifications.dto.NotificationView(" +
+            "n.id, n.type, n.resourceId, n.isRead, n.creationDate, n.lastActivity, " +
+            "s.id, s.firstName, s.lastName, COALESCE(s.profilePictureVariants.thumbnailUrl, s.ProfilePicture), " +
+            "COALESCE(n.actorCount, 1), n.sampleActorIds) " +
+            "FROM notifications n JOIN n.sender s ";
+
+    // Keyset pages over idx_notifications_recipient_activity, latest activity first, so a group that gains an actor
+    // moves back to the top. The windowStart bound prunes the monthly partitions that are past retention
+    @Query(NOTIFICATION_VIEW + "WHERE n.recipient.id = :recipientId AND n.windowStart >= :since " +
+            "ORDER BY n.lastActivity DESC, n.id DESC")
+    List<NotificationView> findInbox(@Param("recipientId") Long recipientId, @Param("since") LocalDateTime since, Limit limit);
+
+    @Query(NOTIFICATION_VIEW + "WHERE n.recipient.id = :recipientId AND n.windowStart >= :since " +
+            "AND (n.lastActivity < :beforeActivity OR (n.lastActivity = :beforeActivity AND n.id < :beforeId)) " +
+            "ORDER BY n.lastActivity DESC, n.id DESC")
+    List<NotificationView> findInboxBefore(@Param("recipientId") Long recipientId, @Param("since") LocalDateTime since,
+                                           @Param("beforeActivity") LocalDateTime beforeActivity,
+                                           @Param("beforeId") Long beforeId, Limit limit);
 }
@@ -0,0 +1,75 @@
+package com.Backend.features.notifications.service;
+
+import com.Backend.features.feed.model.Post;
+import com.Backend.features.network.model.Status;
+import com.Backend.features.network.repository.ConnectionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes new posts to the feed topic of every connection of the author. The post is serialized once and the
+ * same encoded frame is sent to all recipients, in parallel chunks and off the request thread.
+ */
+@Component
+public class FeedBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedBroadcaster.class);
+    private static final int CHUNK_SIZE = 256;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ConnectionRepository connectionRepository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FeedBroadcaster(SimpMessagingTemplate messagingTemplate, ConnectionRepository connectionRepository, ObjectMapper objectMapper) {
+        this.messagingTemplate = messagingTemplate;
+        this.connectionRepository = connectionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void broadcastNewPost(Post post) {
+        Message<byte[]> message = encode(post);
+        Long authorId = post.getAuthor().getId();
+
+        executor.execute(() -> {
+            List<Long> recipientIds = connectionRepository.findConnectedUserIds(authorId, Status.ACCEPTED);
+            for (int from = 0; from < recipientIds.size(); from += CHUNK_SIZE) {
+                List<Long> chunk = recipientIds.subList(from, Math.min(from + CHUNK_SIZE, recipientIds.size()));
+                executor.execute(() -> chunk.forEach(recipientId ->
+                        messagingTemplate.send("/topic/feed/" + recipientId + "/post", message)));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Feed broadcasts still running at shutdown");
+        }
+    }
+
+    private Message<byte[]> encode(Object payload) {
+        try {
+            return MessageBuilder.withPayload(objectMapper.writeValueAsBytes(payload))
+                    .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize feed event", e);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.Backend.features.notifications.service;
+
+import com.Backend.features.notifications.model.NotificationType;
+import com.Backend.features.notifications.model.Notifications;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox for user notifications. Requests only enqueue, after their transaction committed; virtual-thread
+ * workers store the rows in batches and push them to the broker once the batch is committed.
+ * When the queue is full the caller delivers its own notification, which slows producers down instead of dropping.
+ * <p>
+ * Notifications with the same (recipient, type, resourceId) within one {@code notifications.aggregation.window}
+ * are collapsed into one row ("Alice and 41 others liked your post"): the batch is grouped first, then all of its
+ * groups are upserted in a single statement. Only the action that creates the row is pushed, so a recipient gets at most one frame per window.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final int SAMPLE_ACTORS = 3;
+    // Locks the groups of the batch that already exist, in key order, and tells which were already read: those count
+    // as unread again. A group inserted concurrently is not seen here but was counted by its inserter
+    private static final String LOCK_GROUPS = """
+            SELECT n.recipient_id, n.type, n.resource_id, n.is_read
+              FROM notifications n
+              JOIN unnest(?, ?, ?) AS g(recipient_id, type, resource_id)
+                ON n.recipient_id = g.recipient_id AND n.type = g.type AND n.resource_id = g.resource_id
+             WHERE n.window_start = ?
+             ORDER BY n.recipient_id, n.type, n.resource_id
+               FOR UPDATE OF n
+            """;
+    // Every group of the batch in one statement. The batch holds each key once, as ON CONFLICT DO UPDATE requires
+    private static final String UPSERT_GROUPS = """
+            INSERT INTO notifications (recipient_id, sender_id, is_read, type, resource_id, creation_date,
+                                       last_activity, window_start, actor_count, sample_actor_ids)
+            SELECT g.recipient_id, g.sender_id, false, g.type, g.resource_id, ?, ?, ?, g.actor_count,
+                   g.sample_actor_ids::bigint[]
+              FROM unnest(?, ?, ?, ?, ?, ?) AS g(recipient_id, sender_id, type, resource_id, actor_count, sample_actor_ids)
+             ORDER BY g.recipient_id, g.type, g.resource_id
+            ON CONFLICT (recipient_id, type, resource_id, window_start) DO UPDATE SET
+                   sender_id = EXCLUDED.sender_id,
+                   is_read = false,
+                   last_activity = EXCLUDED.last_activity,
+                   actor_count = COALESCE(notifications.actor_count, 1) + EXCLUDED.actor_count,
+                   sample_actor_ids = (EXCLUDED.sample_actor_ids || ARRAY(
+                           SELECT actor FROM unnest(notifications.sample_actor_ids) actor
+                            WHERE actor <> ALL (EXCLUDED.sample_actor_ids)))[1:%d]
+            RETURNING id, recipient_id, type, resource_id, actor_count, sample_actor_ids::text AS sample_actor_ids,
+                      xmax = 0 AS inserted
+            """.formatted(SAMPLE_ACTORS);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final UnreadNotificationCounter unreadCounter;
+    private final BlockingQueue<Notifications> queue;
+    private final int batchSize;
+    private final long windowMillis;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder deliveredByCaller = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public NotificationDispatcher(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  SimpMessagingTemplate messagingTemplate, UnreadNotificationCounter unreadCounter,
+                                  @Value("${notifications.dispatch.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${notifications.dispatch.workers:4}") int workerCount,
+                                  @Value("${notifications.dispatch.batch-size:100}") int batchSize,
+                                  @Value("${notifications.aggregation.window:PT1H}") Duration window) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Callers deliver from afterCommit when the queue is full: joining their already committed transaction
+        // would never commit the notifications
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.messagingTemplate = messagingTemplate;
+        this.unreadCounter = unreadCounter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.windowMillis = window.toMillis();
+
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("notification-worker-" + i).start(this::work));
+        }
+    }
+
+    public void dispatch(Notifications notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(notification);
+                }
+            });
+        } else {
+            enqueue(notification);
+        }
+    }
+
+    public DispatcherStats getStats() {
+        return new DispatcherStats(queue.size(), queue.remainingCapacity(), enqueued.sum(), delivered.sum(),
+                deliveredByCaller.sum(), failed.sum());
+    }
+
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void logStats() {
+        DispatcherStats stats = getStats();
+        if (stats.queued() > 0 || stats.deliveredByCaller() > 0 || stats.failed() > 0) {
+            log.info("Notification dispatch: {}", stats);
+        }
+    }
+
+    @PreDestroy
+    public void drain() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} notifications were not delivered before shutdown", queue.size());
+        }
+    }
+
+    private void enqueue(Notifications notification) {
+        if (running && queue.offer(notification)) {
+            enqueued.increment();
+            return;
+        }
+        deliveredByCaller.increment();
+        deliver(List.of(notification));
+    }
+
+    private void work() {
+        List<Notifications> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notifications first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<Notifications> batch) {
+        List<Notifications> created;
+        try {
+            created = transactionTemplate.execute(status -> upsert(batch));
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.error("Failed to store {} notifications: {}", batch.size(), e.getMessage());
+            return;
+        }
+        for (Notifications notification : created) {
+            messagingTemplate.convertAndSend("/topic/users/" + notification.getRecipient().getId() + "/notifications", notification);
+        }
+        delivered.add(batch.size());
+    }
+
+    // Returns the groups this batch created, the only ones to push
+    private List<Notifications> upsert(List<Notifications> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        LocalDateTime windowStart = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(nowMillis - nowMillis % windowMillis), ZoneId.systemDefault());
+
+        // Actions of each group in arrival order. Groups are upserted in key order, so concurrent workers lock
+        // the rows they share in the same order and can't deadlock
+        Map<GroupKey, List<Notifications>> groups = new TreeMap<>(GroupKey.ORDER);
+        for (Notifications notification : batch) {
+            GroupKey key = new GroupKey(notification.getRecipient().getId(), notification.getType(), notification.getResourceId());
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(notification);
+        }
+
+        List<GroupKey> keys = new ArrayList<>(groups.keySet());
+        Timestamp windowTimestamp = Timestamp.valueOf(windowStart);
+        Map<GroupKey, Boolean> existing = new HashMap<>();
+        jdbcTemplate.query(LOCK_GROUPS, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("bigint", keys.stream().map(GroupKey::recipientId).toArray()));
+            statement.setArray(2, connection.createArrayOf("int4", keys.stream().map(key -> key.type().ordinal()).toArray()));
+            statement.setArray(3, connection.createArrayOf("bigint", keys.stream().map(GroupKey::resourceId).toArray()));
+            statement.setTimestamp(4, windowTimestamp);
+        }, rs -> {
+            existing.put(keyOf(rs), rs.getBoolean("is_read"));
+        });
+
+        List<GroupRow> rows = jdbcTemplate.query(UPSERT_GROUPS, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setTimestamp(1, Timestamp.valueOf(now));
+            statement.setTimestamp(2, Timestamp.valueOf(now));
+            statement.setTimestamp(3, windowTimestamp);
+            statement.setArray(4, connection.createArrayOf("bigint", keys.stream().map(GroupKey::recipientId).toArray()));
+            statement.setArray(5, connection.createArrayOf("bigint", keys.stream()
+                    .map(key -> latestOf(groups.get(key)).getSender().getId()).toArray()));
+            statement.setArray(6, connection.createArrayOf("int4", keys.stream().map(key -> key.type().ordinal()).toArray()));
+            statement.setArray(7, connection.createArrayOf("bigint", keys.stream().map(GroupKey::resourceId).toArray()));
+            statement.setArray(8, connection.createArrayOf("int4", keys.stream().map(key -> groups.get(key).size()).toArray()));
+            statement.setArray(9, connection.createArrayOf("text", keys.stream().map(key -> sampleActors(groups.get(key))).toArray()));
+        }, (rs, rowNum) -> new GroupRow(rs.getLong("id"), keyOf(rs), rs.getInt("actor_count"),
+                rs.getString("sample_actor_ids"), rs.getBoolean("inserted")));
+
+        List<Notifications> created = new ArrayList<>();
+        Map<Long, Integer> newlyUnread = new HashMap<>();
+        for (GroupRow row : rows) {
+            GroupKey key = row.key();
+            if (row.inserted() || existing.getOrDefault(key, false)) {
+                newlyUnread.merge(key.recipientId(), 1, Integer::sum);
+            }
+            if (row.inserted()) {
+                Notifications latest = latestOf(groups.get(key));
+                latest.setId(row.id());
+                latest.setCreationDate(now);
+                latest.setLastActivity(now);
+                latest.setWindowStart(windowStart);
+                latest.setActorCount(row.actorCount());
+                latest.setSampleActorIds(parseArray(row.sampleActorIds()));
+                created.add(latest);
+            }
+        }
+        if (!newlyUnread.isEmpty()) {
+            unreadCounter.added(newlyUnread);
+        }
+        return created;
+    }
+
+    private static Notifications latestOf(List<Notifications> actions) {
+        return actions.get(actions.size() - 1);
+    }
+
+    private static GroupKey keyOf(ResultSet rs) throws SQLException {
+        return new GroupKey(rs.getLong("recipient_id"), NotificationType.values()[rs.getInt("type")], rs.getLong("resource_id"));
+    }
+
+    // Distinct actors of the group, latest first, as a Postgres array literal
+    private static String sampleActors(List<Notifications> actions) {
+        Set<Long> actors = new LinkedHashSet<>();
+        for (int i = actions.size() - 1; i >= 0 && actors.size() < SAMPLE_ACTORS; i--) {
+            actors.add(actions.get(i).getSender().getId());
+        }
+        return actors.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static Long[] parseArray(String literal) {
+        String values = literal.substring(1, literal.length() - 1);
+        return values.isEmpty() ? new Long[0] : Arrays.stream(values.split(",")).map(Long::valueOf).toArray(Long[]::new);
+    }
+
+    private record GroupKey(Long recipientId, NotificationType type, Long resourceId) {
+        static final Comparator<GroupKey> ORDER = Comparator.comparing(GroupKey::recipientId)
+                .thenComparing(GroupKey::type)
+                .thenComparing(GroupKey::resourceId);
+    }
+
+    private record GroupRow(Long id, GroupKey key, int actorCount, String sampleActorIds, boolean inserted) {
+    }
+
+    public record DispatcherStats(int queued, int remainingCapacity, long enqueued, long delivered,
+                                  long deliveredByCaller, long failed) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.Backend.features.notifications.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps {@code notifications} range partitioned by month of {@code window_start}. The unpartitioned table that
+ * Hibernate creates is converted once at startup; afterwards partitions are created ahead of time, and partitions
+ * older than {@code notifications.retention.months} are copied to {@code notifications_archive} (one jsonb row per
+ * recipient and month, compressed by TOAST) and dropped as a whole, instead of deleting rows one by one.
+ * Every step runs under an advisory lock, so only one node at a time does it.
+ * <p>
+ * The conversion is a migration: it runs once the schema is up to date but before the web server, the STOMP broker
+ * and the schedulers start, so no request ever sees the table while it is renamed and copied. A node starting
+ * alongside the one converting waits for the lock and then finds the table partitioned.
+ * <p>
+ * Detaching takes an ACCESS EXCLUSIVE lock on {@code notifications} until its transaction commits, so it commits
+ * on its own before the copy. The archive and drop of a detached partition then run in a second transaction that
+ * only locks that table; a detached partition left behind by a node that stopped in between is picked up by the
+ * next run.
+ */
+@Component
+public class NotificationPartitions implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPartitions.class);
+    private static final long LOCK_KEY = 0x6e6f7469L; // "noti"
+    private static final int MONTHS_AHEAD = 2;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PARTITION_PREFIX = "notifications_p";
+
+    private static final String IS_PARTITIONED = """
+            SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid
+             WHERE c.relname = 'notifications' AND c.relnamespace = current_schema()::regnamespace
+            """;
+    private static final String PARTITIONS = """
+            SELECT c.relname FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+              JOIN pg_class p ON p.oid = i.inhparent
+             WHERE p.relname = 'notifications' AND p.relnamespace = current_schema()::regnamespace
+               AND c.relname LIKE 'notifications\\_p%'
+            """;
+    private static final String DETACHED = """
+            SELECT c.relname FROM pg_class c
+             WHERE c.relkind = 'r' AND NOT c.relispartition AND c.relnamespace = current_schema()::regnamespace
+               AND c.relname ~ '^notifications_p[0-9]{6}$'
+            """;
+    // Unique constraints of a partitioned table must contain the partition key, hence the (id, window_start) key.
+    // The old table is dropped once copied, its constraint and index names are freed up front
+    private static final List<String> CONVERT = List.of(
+            "ALTER TABLE notifications RENAME TO notifications_unpartitioned",
+            "ALTER TABLE notifications_unpartitioned DROP CONSTRAINT IF EXISTS notifications_pkey",
+            "ALTER TABLE notifications_unpartitioned DROP CONSTRAINT IF EXISTS uk_notifications_group",
+            "DROP INDEX IF EXISTS idx_notifications_recipient_id",
+            "DROP INDEX IF EXISTS idx_notifications_recipient_activity",
+            "CREATE SEQUENCE IF NOT EXISTS notifications_partitioned_id_seq",
+            "SELECT setval('notifications_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM notifications_unpartitioned), 0) + 1, false)",
+            "CREATE TABLE notifications (LIKE notifications_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (window_start)",
+            "ALTER TABLE notifications ALTER COLUMN id SET DEFAULT nextval('notifications_partitioned_id_seq')",
+            "ALTER SEQUENCE notifications_partitioned_id_seq OWNED BY notifications.id",
+            "ALTER TABLE notifications ADD PRIMARY KEY (id, window_start)",
+            "ALTER TABLE notifications ADD CONSTRAINT uk_notifications_group UNIQUE (recipient_id, type, resource_id, window_start)",
+            "CREATE INDEX idx_notifications_recipient_activity ON notifications (recipient_id, last_activity, id)",
+            "CREATE TABLE notifications_default PARTITION OF notifications DEFAULT");
+    // Rows from before aggregation have no window and take their own creation date as one. Rows that end up with
+    // the same group key are merged the way the dispatcher would have grouped them: the latest row keeps its id,
+    // sender and sample actors, actor counts add up and the group is unread if any of them was
+    private static final String COPY_UNPARTITIONED = """
+            INSERT INTO notifications (id, recipient_id, sender_id, is_read, type, resource_id, creation_date,
+                                       last_activity, window_start, actor_count, sample_actor_ids)
+            SELECT MAX(id), recipient_id, (array_agg(sender_id ORDER BY id DESC))[1], bool_and(is_read), type,
+                   resource_id, MIN(creation_date), MAX(COALESCE(last_activity, creation_date)), window_start,
+                   SUM(COALESCE(actor_count, 1))::int, (array_agg(sample_actor_ids ORDER BY id DESC))[1]
+              FROM (SELECT id, recipient_id, sender_id, is_read, type, resource_id, creation_date, last_activity,
+                           COALESCE(window_start, creation_date) AS window_start, actor_count, sample_actor_ids
+                      FROM notifications_unpartitioned) n
+             GROUP BY recipient_id, type, resource_id, window_start
+            """;
+    // Rows from before the inbox was ordered by last activity; once filled in this finds nothing to update
+    private static final String BACKFILL_LAST_ACTIVITY = "UPDATE notifications SET last_activity = creation_date WHERE last_activity IS NULL";
+    private static final String OLDEST_UNPARTITIONED = "SELECT MIN(COALESCE(window_start, creation_date)) FROM notifications_unpartitioned";
+    private static final String CREATE_ARCHIVE = """
+            CREATE TABLE IF NOT EXISTS notifications_archive (
+                recipient_id bigint NOT NULL,
+                month date NOT NULL,
+                notifications jsonb NOT NULL,
+                PRIMARY KEY (recipient_id, month))
+            """;
+    private static final String ARCHIVE = """
+            INSERT INTO notifications_archive (recipient_id, month, notifications)
+            SELECT recipient_id, ?::date, jsonb_agg(to_jsonb(n) - 'recipient_id' ORDER BY id)
+              FROM %s n
+             GROUP BY recipient_id
+            ON CONFLICT (recipient_id, month) DO UPDATE SET notifications = notifications_archive.notifications || EXCLUDED.notifications
+            """;
+    // Archived notifications leave the inbox, so they leave the unread counts too
+    private static final String RELEASE_UNREAD = """
+            UPDATE notification_counters c SET unread_count = GREATEST(c.unread_count - expired.unread, 0)
+              FROM (SELECT recipient_id, COUNT(*) AS unread FROM %s WHERE is_read = false GROUP BY recipient_id) expired
+             WHERE c.user_id = expired.recipient_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionMonths;
+    private final boolean archive;
+
+    public NotificationPartitions(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  @Value("${notifications.retention.months:12}") int retentionMonths,
+                                  @Value("${notifications.retention.archive:true}") boolean archive) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionMonths = retentionMonths;
+        this.archive = archive;
+    }
+
+    // Oldest window the inbox still shows, older partitions are about to be archived
+    public LocalDateTime retainedSince() {
+        return YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        partition();
+    }
+
+    public void partition() {
+        // Waits rather than skips, this node must not serve before the conversion is done
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+            if (jdbcTemplate.queryForObject(IS_PARTITIONED, Long.class) > 0) {
+                jdbcTemplate.update(BACKFILL_LAST_ACTIVITY);
+                jdbcTemplate.execute("DROP INDEX IF EXISTS idx_notifications_recipient_id");
+                return;
+            }
+            CONVERT.forEach(jdbcTemplate::execute);
+            LocalDateTime oldest = jdbcTemplate.queryForObject(OLDEST_UNPARTITIONED, LocalDateTime.class);
+            YearMonth month = oldest == null ? YearMonth.now() : YearMonth.from(oldest);
+            for (; !month.isAfter(YearMonth.now().plusMonths(MONTHS_AHEAD)); month = month.plusMonths(1)) {
+                createPartition(month);
+            }
+            long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications_unpartitioned", Long.class);
+            int copied = jdbcTemplate.update(COPY_UNPARTITIONED);
+            jdbcTemplate.execute("DROP TABLE notifications_unpartitioned");
+            if (copied < rows) {
+                log.warn("{} notifications shared a group key with another and were merged into it", rows - copied);
+            }
+            log.info("Converted notifications to monthly partitions, {} rows copied", copied);
+        });
+        maintain();
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void maintain() {
+        // Commits before anything is copied, the detach holds up every inbox query until then
+        locked(() -> {
+            for (int ahead = 0; ahead <= MONTHS_AHEAD; ahead++) {
+                createPartition(YearMonth.now().plusMonths(ahead));
+            }
+
+            YearMonth oldestRetained = YearMonth.from(retainedSince());
+            for (String partition : jdbcTemplate.queryForList(PARTITIONS, String.class)) {
+                if (monthOf(partition).isBefore(oldestRetained)) {
+                    jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION " + partition);
+                }
+            }
+        });
+
+        for (String partition : jdbcTemplate.queryForList(DETACHED, String.class)) {
+            locked(() -> expire(partition));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + month.format(PARTITION_SUFFIX) +
+                " PARTITION OF notifications FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    // Runs on a partition that is already detached, so it only locks that table. Releasing, archiving and dropping
+    // commit together, a partition is never released twice
+    private void expire(String partition) {
+        if (jdbcTemplate.queryForList(DETACHED, String.class).stream().noneMatch(partition::equals)) {
+            return;
+        }
+        jdbcTemplate.update(RELEASE_UNREAD.formatted(partition));
+        if (archive) {
+            jdbcTemplate.execute(CREATE_ARCHIVE);
+            jdbcTemplate.update(ARCHIVE.formatted(partition), monthOf(partition).atDay(1).toString());
+        }
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        log.info("{} notifications partition {}", archive ? "Archived" : "Dropped", partition);
+    }
+
+    private static YearMonth monthOf(String partition) {
+        return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+    }
+
+    private void locked(Runnable task) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY))) {
+                task.run();
+            }
+        });
+    }
+}
@@ -1,46 +1,93 @@
 package com.Backend.features.notifications.service;
 
 import com.Backend.features.authentication.model.User;
+import com.Backend.features.feed.dto.LikeEvent;
 import com.Backend.features.feed.model.Comment;
 import com.Backend.features.feed.model.Post;
-import com.Backend.features.messages.model.Conversation;
+import com.Backend.features.messages.dto.ConversationEvent;
+import com.Backend.features.messages.dto.ReadWatermark;
+import com.Backend.features.notifications.dto.NotificationCursor;
+import com.Backend.features.notifications.dto.NotificationPage;
+import com.Backend.features.notifications.dto.NotificationView;
 import com.Backend.features.messages.model.Message;
 import com.Backend.features.network.model.Connection;
-import com.Backend.features.network.model.Status;
 import com.Backend.features.notifications.model.NotificationType;
 import com.Backend.features.notifications.model.Notifications;
 import com.Backend.features.notifications.repository.NotificationsRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
 
 @Service
 public class NotificationService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+
     private final NotificationsRepository notificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher notificationDispatcher;
+    private final FeedBroadcaster feedBroadcaster;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationPartitions notificationPartitions;
 
-    public NotificationService(NotificationsRepository notificationRepository, SimpMessagingTemplate messagingTemplate) {
+    public NotificationService(NotificationsRepository notificationRepository, SimpMessagingTemplate messagingTemplate, NotificationDispatcher notificationDispatcher, FeedBroadcaster feedBroadcaster, UnreadNotificationCounter unreadCounter, NotificationPartitions notificationPartitions) {
         this.notificationRepository = notificationRepository;
+        this.unreadCounter = unreadCounter;
+        this.notificationPartitions = notificationPartitions;
 
         this.messagingTemplate = messagingTemplate;
+        this.notificationDispatcher = notificationDispatcher;
+        this.feedBroadcaster = feedBroadcaster;
     }
 
     public List<Notifications> getUserNotifications(User user) {
         return notificationRepository.findByRecipientOrderByCreationDateDesc(user);
     }
 
-    public void sendLikeToPost(Long postId, Set<User> likes) {
-        messagingTemplate.convertAndSend("/topic/likes/" + postId, likes);
+    public NotificationPage getInbox(Long userId, String before, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        LocalDateTime since = notificationPartitions.retainedSince();
+        List<NotificationView> notifications;
+        if (before == null || before.isBlank()) {
+            notifications = notificationRepository.findInbox(userId, since, fetchLimit);
+        } else {
+            NotificationCursor position = NotificationCursor.decode(before);
+            notifications = notificationRepository.findInboxBefore(userId, since, position.lastActivity(), position.id(), fetchLimit);
+        }
+
+        long unreadCount = unreadCounter.get(userId);
+        if (notifications.size() <= pageSize) {
+            return new NotificationPage(notifications, null, unreadCount);
+        }
+        List<NotificationView> page = notifications.subList(0, pageSize);
+        NotificationView last = page.get(pageSize - 1);
+        return new NotificationPage(page, new NotificationCursor(last.lastActivity(), last.id()).encode(), unreadCount);
+    }
+
+    public long getUnreadCount(Long userId) {
+        return unreadCounter.get(userId);
+    }
+
+    public void markAllNotificationsAsRead(Long userId) {
+        unreadCounter.markAllRead(userId);
+    }
+
+    public void sendLikeToPost(Long postId, LikeEvent likeEvent) {
+        send("/topic/likes/" + postId, likeEvent);
     }
 
     public void sendCommentToPost(Long postId, Comment comment) {
-        messagingTemplate.convertAndSend("/topic/comments/" + postId, comment);
+        send("/topic/comments/" + postId, comment);
     }
 
     public void sendDeleteCommentToPost(Long postId, Comment comment) {
-        messagingTemplate.convertAndSend("/topic/comments/" + postId + "/delete", comment);
+        send("/topic/comments/" + postId + "/delete", comment);
     }
 
     public void sendCommentNotification(User sender, User postOwner, Long postId) {
@@ -55,12 +102,7 @@ public class NotificationService {
                 postId
         );
 
-        notificationRepository.save(notification);
-
-        messagingTemplate.convertAndSend(
-                "/topic/users/" + postOwner.getId() + "/notifications",
-                notification
-        );
+        notificationDispatcher.dispatch(notification);
     }
 
     // ✅ BACKEND FIX - sendLikeNotification method
@@ -76,19 +118,20 @@ public class NotificationService {
                 postId
         );
 
-        notificationRepository.save(notification);
-
-        messagingTemplate.convertAndSend(
-                "/topic/users/" + postOwner.getId() + "/notifications",
-                notification
-        );
+        notificationDispatcher.dispatch(notification);
     }
 
-    public Notifications markNotificationAsRead(Long notificationId) {
+    public Notifications markNotificationAsRead(Long userId, Long notificationId) {
         Notifications notification = notificationRepository.findById(notificationId).orElseThrow(() -> new IllegalArgumentException("Notifications not found"));
-        notification.setRead(true);
-        messagingTemplate.convertAndSend("/topic/users/" + notification.getRecipient().getId() + "/notifications", notification);
-        return notificationRepository.save(notification);
+        if (!notification.getRecipient().getId().equals(userId)) {
+            throw new IllegalArgumentException("User not authorized to mark notification as read");
+        }
+        // The counter only moves if this call is the one that marked it
+        if (unreadCounter.markRead(userId, notificationId)) {
+            notification.setRead(true);
+            send("/topic/users/" + notification.getRecipient().getId() + "/notifications", notification);
+        }
+        return notification;
     }
 //    public void sendConversationToUsers(Long senderId, Long receiverId, Conversation conversation) {
 //        messagingTemplate.convertAndSend("/topic/users/" + senderId + "/conversations", conversation);
@@ -101,54 +144,61 @@ public class NotificationService {
 //    }
 
     public void sendNewInvitationToUsers(Long senderId, Long receiverId, Connection connection) {
-        messagingTemplate.convertAndSend("/topic/users/" + receiverId + "/connections/new", connection);
-        messagingTemplate.convertAndSend("/topic/users/" + senderId + "/connections/new", connection);
+        send("/topic/users/" + receiverId + "/connections/new", connection);
+        send("/topic/users/" + senderId + "/connections/new", connection);
     }
 
     public List<Notifications> getUserNotification(User user) {
         return notificationRepository.findByRecipientOrderByCreationDateDesc(user);
     }
     public void sendInvitationAcceptedToUsers(Long senderId, Long receiverId, Connection connection) {
-        messagingTemplate.convertAndSend("/topic/users/" + receiverId + "/connections/accepted", connection);
-        messagingTemplate.convertAndSend("/topic/users/" + senderId + "/connections/accepted", connection);
+        send("/topic/users/" + receiverId + "/connections/accepted", connection);
+        send("/topic/users/" + senderId + "/connections/accepted", connection);
     }
 
     public void sendRemoveConnectionToUsers(Long senderId, Long receiverId, Connection connection) {
-        messagingTemplate.convertAndSend("/topic/users/" + receiverId + "/connections/remove", connection);
-        messagingTemplate.convertAndSend("/topic/users/" + senderId + "/connections/remove", connection);
+        send("/topic/users/" + receiverId + "/connections/remove", connection);
+        send("/topic/users/" + senderId + "/connections/remove", connection);
     }
 
     public void sendConnectionSeenNotification(Long id, Connection connection) {
-        messagingTemplate.convertAndSend("/topic/users/" + id + "/connections/seen", connection);
+        send("/topic/users/" + id + "/connections/seen", connection);
     }
     public void sendDeleteNotificationToPost(Long postId) {
-        messagingTemplate.convertAndSend("/topic/posts/" + postId + "/delete", postId);
+        send("/topic/posts/" + postId + "/delete", postId);
     }
 
     public void sendEditNotificationToPost(Long postId, Post post) {
-        messagingTemplate.convertAndSend("/topic/posts/" + postId + "/edit", post);
+        send("/topic/posts/" + postId + "/edit", post);
     }
 
     public void sendNewPostNotificationToFeed(Post post) {
-        for (Connection connection : post.getAuthor().getInitiatedConnections()) {
-            if (connection.getStatus().equals(Status.ACCEPTED)) {
-                messagingTemplate.convertAndSend("/topic/feed/" + connection.getRecipient().getId() + "/post", post);
-            }
-        }
-        for (Connection connection : post.getAuthor().getReceivedConnections()) {
-            if (connection.getStatus().equals(Status.ACCEPTED)) {
-                messagingTemplate.convertAndSend("/topic/feed/" + connection.getAuthor().getId() + "/post", post);
-            }
-        }
+        feedBroadcaster.broadcastNewPost(post);
     }
 
     public void sendMessageToConversation(Long conversationId, Message message) {
-        messagingTemplate.convertAndSend("/topic/conversations/" + conversationId + "/messages", message);
+        send("/topic/conversations/" + conversationId + "/messages", message);
     }
 
-    public void sendConversationToUsers(Long senderId, Long receiverId, Conversation conversation) {
-        messagingTemplate.convertAndSend("/topic/users/" + senderId + "/conversations", conversation);
-        messagingTemplate.convertAndSend("/topic/users/" + receiverId + "/conversations", conversation);
+    public void sendConversationEvent(Long userId, ConversationEvent event) {
+        send("/topic/users/" + userId + "/conversations", event);
+    }
+
+    public void sendReadWatermark(Long conversationId, ReadWatermark watermark) {
+        send("/topic/conversations/" + conversationId + "/read", watermark);
     }
-}
 
+    // Broker frames must never announce data that a rollback could still undo
+    private void send(String destination, Object payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    messagingTemplate.convertAndSend(destination, payload);
+                }
+            });
+        } else {
+            messagingTemplate.convertAndSend(destination, payload);
+        }
+    }
+}
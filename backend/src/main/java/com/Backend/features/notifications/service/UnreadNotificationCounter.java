@@ -0,0 +1,99 @@
+package com.Backend.features.notifications.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains notification_counters incrementally. A user's row is created from a COUNT of the notifications table
+ * the first time it is needed; from then on inserts add to it and reads subtract what they actually marked.
+ * Creating the row and adding to it are both upserts, so a concurrent first insert and first read can't lose a count.
+ * Inserts only COUNT for users that have no row yet, everyone else gets a plain increment.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final String UNREAD = "SELECT unread_count FROM notification_counters WHERE user_id = ?";
+    // The count sees the caller's own, uncommitted, rows: the first batch of a user is counted once
+    private static final String SEED = """
+            INSERT INTO notification_counters (user_id, unread_count)
+            SELECT ?, COUNT(*) FROM notifications WHERE recipient_id = ? AND is_read = false
+            ON CONFLICT (user_id) DO NOTHING
+            """;
+    private static final String INCREMENT = "UPDATE notification_counters SET unread_count = unread_count + ? WHERE user_id = ?";
+    // For users without a row; a row created meanwhile by another transaction didn't count our rows, so add them
+    private static final String SEED_AND_ADD = """
+            INSERT INTO notification_counters (user_id, unread_count)
+            SELECT ?, COUNT(*) FROM notifications WHERE recipient_id = ? AND is_read = false
+            ON CONFLICT (user_id) DO UPDATE SET unread_count = notification_counters.unread_count + ?
+            """;
+    private static final String MARK_READ = """
+            WITH marked AS (UPDATE notifications SET is_read = true
+                             WHERE id = ? AND recipient_id = ? AND is_read = false
+                            RETURNING id)
+            UPDATE notification_counters SET unread_count = GREATEST(unread_count - (SELECT COUNT(*) FROM marked), 0)
+             WHERE user_id = ?
+            RETURNING (SELECT COUNT(*) FROM marked)
+            """;
+    private static final String MARK_ALL_READ = """
+            WITH marked AS (UPDATE notifications SET is_read = true
+                             WHERE recipient_id = ? AND is_read = false
+                            RETURNING id)
+            UPDATE notification_counters SET unread_count = GREATEST(unread_count - (SELECT COUNT(*) FROM marked), 0)
+             WHERE user_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UnreadNotificationCounter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long get(Long userId) {
+        List<Long> unread = jdbcTemplate.queryForList(UNREAD, Long.class, userId);
+        if (!unread.isEmpty()) {
+            return unread.get(0);
+        }
+        jdbcTemplate.update(SEED, userId, userId);
+        return jdbcTemplate.queryForObject(UNREAD, Long.class, userId);
+    }
+
+    // Called in the transaction that inserted the notifications, with the number inserted per recipient
+    public void added(Map<Long, Integer> countsByRecipient) {
+        List<Map.Entry<Long, Integer>> counts = List.copyOf(countsByRecipient.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(INCREMENT, counts.stream()
+                .map(count -> new Object[]{count.getValue(), count.getKey()})
+                .toList());
+
+        List<Object[]> unseeded = new ArrayList<>();
+        for (int i = 0; i < counts.size(); i++) {
+            if (updated[i] == 0) {
+                Map.Entry<Long, Integer> count = counts.get(i);
+                unseeded.add(new Object[]{count.getKey(), count.getKey(), count.getValue()});
+            }
+        }
+        if (!unseeded.isEmpty()) {
+            jdbcTemplate.batchUpdate(SEED_AND_ADD, unseeded);
+        }
+    }
+
+    /**
+     * Marks one notification of the user as read.
+     *
+     * @return false if it wasn't the user's or was already read
+     */
+    public boolean markRead(Long userId, Long notificationId) {
+        get(userId);
+        List<Long> marked = jdbcTemplate.queryForList(MARK_READ, Long.class, notificationId, userId, userId);
+        return !marked.isEmpty() && marked.get(0) > 0;
+    }
+
+    // One statement for the notifications and the counter, whatever the number of unread notifications
+    public void markAllRead(Long userId) {
+        get(userId);
+        jdbcTemplate.update(MARK_ALL_READ, userId, userId);
+    }
+}
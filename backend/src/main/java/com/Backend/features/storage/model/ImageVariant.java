@@ -0,0 +1,23 @@
+package com.Backend.features.storage.model;
+
+public enum ImageVariant {
+    FULL("full", 1600),
+    CARD("card", 640),
+    THUMB("thumb", 160);
+
+    private final String suffix;
+    private final int maxDimension;
+
+    ImageVariant(String suffix, int maxDimension) {
+        this.suffix = suffix;
+        this.maxDimension = maxDimension;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+}
@@ -0,0 +1,36 @@
+package com.Backend.features.storage.model;
+
+import jakarta.persistence.Embeddable;
+
+/**
+ * URLs of the sizes an uploaded image is stored in: thumb for avatars, card for feed and story cards,
+ * full for the detail view. All three point at the original when it could not be resized (e.g. animated GIFs).
+ */
+@Embeddable
+public class ImageVariants {
+
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String fullUrl;
+
+    public ImageVariants() {
+    }
+
+    public ImageVariants(String thumbnailUrl, String cardUrl, String fullUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+        this.cardUrl = cardUrl;
+        this.fullUrl = fullUrl;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public String getCardUrl() {
+        return cardUrl;
+    }
+
+    public String getFullUrl() {
+        return fullUrl;
+    }
+}
@@ -0,0 +1,75 @@
+package com.Backend.features.storage.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Content hash to stored URLs index, so identical uploads are stored once.
+ * refCount is the number of posts, stories and users referencing the stored files.
+ */
+@Entity(name = "stored_images")
+@Table(
+        indexes = @Index(name = "idx_stored_images_full_url", columnList = "full_url"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_stored_images_hash_kind", columnNames = {"content_hash", "kind"})
+)
+public class StoredImage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Hex SHA-256 of the uploaded bytes
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private StoredImageKind kind;
+
+    private String thumbnailUrl;
+
+    private String cardUrl;
+
+    @Column(nullable = false)
+    private String fullUrl;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    @Column(nullable = false)
+    private LocalDateTime creationDate;
+
+    public StoredImage() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public StoredImageKind getKind() {
+        return kind;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public String getCardUrl() {
+        return cardUrl;
+    }
+
+    public String getFullUrl() {
+        return fullUrl;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+}
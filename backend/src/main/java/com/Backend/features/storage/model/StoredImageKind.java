@@ -0,0 +1,8 @@
+package com.Backend.features.storage.model;
+
+public enum StoredImageKind {
+    // Stored as uploaded, by StorageService.saveImage
+    ORIGINAL,
+    // Stored as thumb, card and full size, by StorageService.saveImageVariants
+    VARIANTS
+}
@@ -0,0 +1,53 @@
+package com.Backend.features.storage.service;
+
+import com.Backend.features.storage.model.ImageType;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryStorageBackend implements StorageBackend {
+
+    private static final String FOLDER = "my_uploads";
+    // .../image/upload/v1712345678/my_uploads/<name>.jpg -> my_uploads/<name>
+    private static final Pattern PUBLIC_ID = Pattern.compile("/upload/(?:v\\d+/)?(.+?)(?:\\.[A-Za-z0-9]+)?$");
+
+    private final Cloudinary cloudinary;
+
+    public CloudinaryStorageBackend(Cloudinary cloudinary) {
+        this.cloudinary = cloudinary;
+    }
+
+    @Override
+    public String store(Path file, String name, ImageType type) throws IOException {
+        // Given a File the SDK streams the request body from disk
+        Map uploadResult = cloudinary.uploader().upload(file.toFile(),
+                ObjectUtils.asMap(
+                        "public_id", name,
+                        "folder", FOLDER // optional: keep images organized
+                ));
+
+        return uploadResult.get("secure_url").toString(); // return Cloudinary URL
+    }
+
+    @Override
+    public void delete(String reference) throws IOException {
+        cloudinary.uploader().destroy(publicId(reference), ObjectUtils.emptyMap());
+    }
+
+    private static String publicId(String reference) {
+        if (!reference.startsWith("http")) {
+            return reference;
+        }
+        Matcher matcher = PUBLIC_ID.matcher(reference);
+        return matcher.find() ? matcher.group(1) : reference;
+    }
+}
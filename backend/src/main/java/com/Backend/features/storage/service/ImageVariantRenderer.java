@@ -0,0 +1,253 @@
+package com.Backend.features.storage.service;
+
+import com.Backend.features.storage.model.ImageVariant;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Decodes an uploaded image once and writes each {@link ImageVariant} as a JPEG no larger than its max dimension,
+ * each size scaled down from the previous one. Decoded images take width * height * 4 bytes of heap, so the
+ * dimensions are read from the header first and images over {@code storage.variants.max-pixels} are rejected before
+ * anything is decoded; a few kilobytes of PNG can otherwise claim gigabytes. Rendering also runs on a small bounded
+ * pool, when its queue is full uploads are rejected with a {@link RejectedExecutionException}. JPEGs are turned
+ * upright according to their EXIF orientation, since the variants are written without the EXIF data.
+ */
+@Component
+public class ImageVariantRenderer {
+
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final int EXIF_MARKER = 0xFFE1;
+    private static final int START_OF_SCAN = 0xFFDA;
+    private static final int END_OF_IMAGE = 0xFFD9;
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+
+    public ImageVariantRenderer(@Value("${storage.variants.workers:2}") int workers,
+                                @Value("${storage.variants.queue-capacity:32}") int queueCapacity,
+                                @Value("${storage.variants.max-pixels:40000000}") long maxPixels) {
+        ImageIO.setUseCache(false);
+        this.maxPixels = maxPixels;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("image-variants-", 0).factory());
+    }
+
+    /**
+     * @return the rendered variant files, to be deleted by the caller, or an empty map when the image can't be decoded
+     * @throws IllegalArgumentException when the image has more than {@code storage.variants.max-pixels} pixels
+     */
+    public Map<ImageVariant, Path> render(Path image) throws IOException {
+        try {
+            return executor.submit(() -> renderVariants(image)).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resizing image", e);
+        }
+    }
+
+    private Map<ImageVariant, Path> renderVariants(Path image) throws IOException {
+        Map<ImageVariant, Path> variants = new EnumMap<>(ImageVariant.class);
+        BufferedImage source = read(image);
+        if (source == null) {
+            return variants;
+        }
+
+        try {
+            // FULL, CARD, THUMB: every step shrinks the previous, smaller, image
+            for (ImageVariant variant : ImageVariant.values()) {
+                source = scaleDown(source, variant.getMaxDimension());
+                Path file = Files.createTempFile("variant-" + variant.getSuffix() + "-", ".jpg");
+                variants.put(variant, file);
+                writeJpeg(source, file);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path file : variants.values()) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+        return variants;
+    }
+
+    private BufferedImage read(Path image) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(image.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                // Only the header is read so far
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException("Image is too large");
+                }
+                int orientation = "jpeg".equalsIgnoreCase(reader.getFormatName()) ? exifOrientation(image) : 1;
+                return orient(reader.read(0), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 1 (upright) unless an APP1 segment before the image data holds an EXIF orientation. Scans the segments itself,
+    // ImageIO's JPEG metadata refuses files where APP1 comes before the JFIF APP0, which cameras do write
+    private static int exifOrientation(Path image) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(image)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == START_OF_SCAN || marker == END_OF_IMAGE) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker == EXIF_MARKER) {
+                    byte[] data = new byte[length];
+                    in.readFully(data);
+                    int orientation = exifOrientation(data);
+                    if (orientation > 0) {
+                        return orientation;
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (IOException e) {
+            // Truncated headers don't make the image unusable, the decoder decides that
+            return 1;
+        }
+    }
+
+    // Walks IFD0 of the TIFF structure after the "Exif\0\0" header, 0 when there is no orientation tag
+    static int exifOrientation(byte[] data) {
+        byte[] header = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+        if (data.length < header.length + 8 || !ByteBuffer.wrap(data, 0, header.length).equals(ByteBuffer.wrap(header))) {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(data, header.length, data.length - header.length).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+        for (int entry = 0; entry < entries; entry++) {
+            int offset = ifd + 2 + entry * 12;
+            if (offset + 12 > tiff.limit()) {
+                return 0;
+            }
+            if (Short.toUnsignedInt(tiff.getShort(offset)) == ORIENTATION_TAG) {
+                int orientation = Short.toUnsignedInt(tiff.getShort(offset + 8));
+                return orientation >= 1 && orientation <= 8 ? orientation : 0;
+            }
+        }
+        return 0;
+    }
+
+    // Redraws the image upright, orientations 5 to 8 swap width and height
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+        boolean swapped = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(swapped ? h : w, swapped ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, oriented.getWidth(), oriented.getHeight());
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    // Also flattens transparency onto white, JPEG has no alpha channel
+    private static BufferedImage scaleDown(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        if (scale == 1.0 && source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,62 @@
+package com.Backend.features.storage.service;
+
+import com.Backend.features.storage.model.ImageType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Files on the local disk under {@code storage.local.root}, served by LocalFileController. Meant for staging and
+ * single node setups that should run without Cloudinary.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path rootLocation;
+    private final String baseUrl;
+
+    public LocalStorageBackend(@Value("${storage.local.root:uploads}") String root,
+                               @Value("${storage.local.base-url:/api/v1/storage/files}") String baseUrl) throws IOException {
+        this.rootLocation = Files.createDirectories(Paths.get(root)).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public String store(Path file, String name, ImageType type) throws IOException {
+        String fileName = name + type.getExtension();
+        Files.move(file, resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+        return baseUrl + "/" + fileName;
+    }
+
+    @Override
+    public void delete(String reference) throws IOException {
+        Files.deleteIfExists(resolve(reference.substring(reference.lastIndexOf('/') + 1)));
+    }
+
+    public StoredFile open(String fileName) throws IOException {
+        Path file = resolve(fileName);
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class); // NoSuchFileException when missing
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\"";
+        MediaType mediaType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return new StoredFile(file, attributes.size(), lastModified, etag, mediaType);
+    }
+
+    private Path resolve(String fileName) {
+        Path file = rootLocation.resolve(fileName).normalize();
+        if (!file.getParent().equals(rootLocation)) { // Prevent directory traversal
+            throw new IllegalArgumentException("Invalid file path");
+        }
+        return file;
+    }
+
+    public record StoredFile(Path path, long size, long lastModified, String etag, MediaType mediaType) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.Backend.features.storage.service;
+
+import com.Backend.features.storage.model.ImageType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where uploaded files end up, selected with {@code storage.backend} (cloudinary or local).
+ */
+public interface StorageBackend {
+
+    /**
+     * Takes ownership of {@code file}, the backend may move it.
+     *
+     * @return the public URL of the stored file
+     */
+    String store(Path file, String name, ImageType type) throws IOException;
+
+    /**
+     * @param reference the URL returned by {@link #store}, or a backend specific id
+     */
+    void delete(String reference) throws IOException;
+}
@@ -1,146 +1,222 @@
 package com.Backend.features.storage.service;
 
-import org.springframework.http.MediaType;
+import com.Backend.features.storage.model.ImageType;
+import com.Backend.features.storage.model.ImageVariant;
+import com.Backend.features.storage.model.ImageVariants;
+import com.Backend.features.storage.model.StoredImageKind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.UUID;
-
-//
-//@Service
-//public class StorageService {
-//
-//    private final Path rootLocation = Paths.get("uploads");
-//
-//    public StorageService(){
-//        if(!rootLocation.toFile().exists()){
-//            rootLocation.toFile().mkdir();
-//        }
-//    }
-//    public String saveImage(MultipartFile file) throws IOException{
-//        if(!isImage(file.getContentType())){
-//            throw new IllegalArgumentException("File is not an image");
-//        }
-//        if(isFileTooLarge(file)){
-//            throw new IllegalArgumentException("File is too large");
-//        }
-//       String fileExtension = getFileExtension(file.getOriginalFilename());
-//        String fileName = UUID.randomUUID() + fileExtension;
-//        Files.copy(file.getInputStream(),this.rootLocation.resolve(fileName));
-//        return fileName;
-//    }
-//
-//    public MediaType getMediaType(String filename) {
-//        String extension = getFileExtension(filename);
-//        switch (extension) {
-//            case ".png":
-//                return MediaType.IMAGE_PNG;
-//            case ".jpg":
-//            case ".jpeg":
-//                return MediaType.IMAGE_JPEG;
-//            case ".gif":
-//                return MediaType.IMAGE_GIF;
-//            default:
-//                return MediaType.APPLICATION_OCTET_STREAM;
-//        }
-//    }
-//
-//    public FileInputStream getFileInputStream(String filename) throws IOException {
-//        Path file = rootLocation.resolve(filename);
-//
-//        if (!file.getParent().equals(rootLocation)) { // Prevent directory traversal
-//            throw new IllegalArgumentException("Invalid file path");
-//        }
-//
-//        if (!file.toFile().exists()) {
-//            throw new IllegalArgumentException("File not found");
-//        }
-//
-//        return new FileInputStream(file.toFile());
-//    }
-//
-//    private String getFileExtension(String filename) {
-//        return filename.substring(filename.lastIndexOf("."));
-//    }
-//
-//    private boolean isImage(String contentType) {
-//        return contentType.startsWith("image");
-//    }
-//
-//    private boolean isFileTooLarge(MultipartFile file) {
-//        return file.getSize() > 10 * 1024 * 1024; // 10MB
-//    }
-//    public void deleteFile(String fileName) throws IOException {
-//        Path file = rootLocation.resolve(fileName);
-//        Files.delete(file);
-//    }
-//}
-
-
-
-
-
-
-
-
-
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
-import java.util.Map;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.*;
 
+@Service
+public class StorageService {
 
+    private static final Logger log = LoggerFactory.getLogger(StorageService.class);
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    private static final SecureRandom RANDOM = new SecureRandom();
 
+    private final StorageBackend storageBackend;
+    private final ImageVariantRenderer imageVariantRenderer;
+    private final StoredImageIndex storedImageIndex;
 
+    public StorageService(StorageBackend storageBackend, ImageVariantRenderer imageVariantRenderer, StoredImageIndex storedImageIndex) {
+        this.storageBackend = storageBackend;
+        this.imageVariantRenderer = imageVariantRenderer;
+        this.storedImageIndex = storedImageIndex;
+    }
 
+    // Upload image to the configured storage backend, unless the same bytes were uploaded before
+    public String saveImage(MultipartFile file) throws IOException {
+        ImageType imageType = validate(file);
+        SpooledUpload upload = spool(file, imageType);
+        try {
+            Optional<ImageVariants> stored = storedImageIndex.acquire(upload.contentHash(), StoredImageKind.ORIGINAL);
+            if (stored.isPresent()) {
+                return stored.get().getFullUrl();
+            }
+
+            String url = storageBackend.store(upload.path(), blobName(upload.contentHash()), imageType);
+            ImageVariants registered = storedImageIndex.register(upload.contentHash(), StoredImageKind.ORIGINAL, new ImageVariants(null, null, url));
+            discardIfLost(Set.of(url), registered);
+            return registered.getFullUrl();
+        } finally {
+            Files.deleteIfExists(upload.path());
+        }
+    }
 
+    // Upload image as thumb, card and full size JPEGs, or as is when it can't be resized
+    public ImageVariants saveImageVariants(MultipartFile file) throws IOException {
+        ImageType imageType = validate(file);
+        SpooledUpload upload = spool(file, imageType);
+        Map<ImageVariant, Path> rendered = Map.of();
+        try {
+            Optional<ImageVariants> stored = storedImageIndex.acquire(upload.contentHash(), StoredImageKind.VARIANTS);
+            if (stored.isPresent()) {
+                return stored.get();
+            }
+
+            String name = blobName(upload.contentHash());
+            ImageVariants variants;
+            // Resizing would drop the animation frames
+            rendered = imageType == ImageType.GIF ? Map.of() : imageVariantRenderer.render(upload.path());
+            if (rendered.isEmpty()) {
+                String url = storageBackend.store(upload.path(), name + "-original", imageType);
+                variants = new ImageVariants(url, url, url);
+            } else {
+                Map<ImageVariant, String> urls = new EnumMap<>(ImageVariant.class);
+                for (Map.Entry<ImageVariant, Path> variant : rendered.entrySet()) {
+                    urls.put(variant.getKey(), storageBackend.store(variant.getValue(), name + "-" + variant.getKey().getSuffix(), ImageType.JPEG));
+                }
+                variants = new ImageVariants(urls.get(ImageVariant.THUMB), urls.get(ImageVariant.CARD), urls.get(ImageVariant.FULL));
+            }
+            ImageVariants registered = storedImageIndex.register(upload.contentHash(), StoredImageKind.VARIANTS, variants);
+            discardIfLost(urls(variants), registered);
+            return registered;
+        } finally {
+            Files.deleteIfExists(upload.path());
+            for (Path variant : rendered.values()) {
+                Files.deleteIfExists(variant);
+            }
+        }
+    }
 
+    // Drop a reference to an image, by URL or backend id. Files are deleted once nothing references them anymore
+    public void deleteFile(String reference) throws IOException {
+        Optional<Set<String>> unreferenced = storedImageIndex.release(reference);
+        if (unreferenced.isEmpty()) {
+            // Not deduplicated, uploaded before the index existed
+            storageBackend.delete(reference);
+            return;
+        }
+        for (String url : unreferenced.get()) {
+            storageBackend.delete(url);
+        }
+    }
 
-@Service
-public class StorageService {
+    public void deleteVariants(ImageVariants variants) throws IOException {
+        Optional<Set<String>> unreferenced = storedImageIndex.release(variants.getFullUrl());
+        for (String url : unreferenced.orElseGet(() -> urls(variants))) {
+            storageBackend.delete(url);
+        }
+    }
 
-    private final Cloudinary cloudinary;
+    /**
+     * Drops the reference a post, story or profile held on its image, once the change that replaced or removed it
+     * commits: a rollback must leave the row pointing at files that still exist. Takes the variants when the image
+     * has them, the plain URL otherwise; both null is a no-op.
+     */
+    public void releaseAfterCommit(ImageVariants variants, String url) {
+        if (variants == null && url == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(variants, url);
+                }
+            });
+        } else {
+            release(variants, url);
+        }
+    }
 
-    public StorageService(Cloudinary cloudinary) {
-        this.cloudinary = cloudinary;
+    // The change is already committed, a failed delete leaves an orphaned file rather than failing the request
+    private void release(ImageVariants variants, String url) {
+        try {
+            if (variants != null && variants.getFullUrl() != null) {
+                deleteVariants(variants);
+            } else if (url != null) {
+                deleteFile(url);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to release image {}", variants != null ? variants.getFullUrl() : url, e);
+        }
     }
 
-    // Upload image to Cloudinary
-    public String saveImage(MultipartFile file) throws IOException {
-        if (!isImage(file.getContentType())) {
-            throw new IllegalArgumentException("File is not an image");
+    // The content hash plus a generation, unique per upload: a released entry's files may still be waiting to be
+    // deleted when the same bytes are uploaded again, the new files must not share their names
+    private static String blobName(String contentHash) {
+        return contentHash + "-" + HexFormat.of().toHexDigits(RANDOM.nextInt());
+    }
+
+    // A concurrent upload of the same bytes registered first and its files are used, ours are not referenced
+    private void discardIfLost(Set<String> stored, ImageVariants registered) throws IOException {
+        if (stored.contains(registered.getFullUrl())) {
+            return;
         }
-        if (isFileTooLarge(file)) {
-            throw new IllegalArgumentException("File is too large");
+        for (String url : stored) {
+            storageBackend.delete(url);
         }
+    }
 
-        String fileName = UUID.randomUUID().toString();
-
-        Map uploadResult = cloudinary.uploader().upload(file.getBytes(),
-                ObjectUtils.asMap(
-                        "public_id", fileName,
-                        "folder", "my_uploads" // optional: keep images organized
-                ));
+    private static Set<String> urls(ImageVariants variants) {
+        Set<String> urls = new LinkedHashSet<>();
+        for (String url : Arrays.asList(variants.getThumbnailUrl(), variants.getCardUrl(), variants.getFullUrl())) {
+            if (url != null) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
 
-        return uploadResult.get("secure_url").toString(); // return Cloudinary URL
+    private ImageType validate(MultipartFile file) throws IOException {
+        if (isFileTooLarge(file)) {
+            throw new IllegalArgumentException("File is too large");
+        }
+        return sniffImageType(file);
     }
 
-    // Delete image from Cloudinary
-    public void deleteFile(String publicId) throws IOException {
-        cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+    // Copy the part to a file we own through a small buffer, hashing it on the way, and let the backend stream
+    // it from there instead of buffering the whole upload on the heap
+    private SpooledUpload spool(MultipartFile file, ImageType imageType) throws IOException {
+        Path upload = Files.createTempFile("upload-", imageType.getExtension());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                if (Files.copy(in, upload, StandardCopyOption.REPLACE_EXISTING) > MAX_FILE_SIZE) {
+                    throw new IllegalArgumentException("File is too large");
+                }
+            }
+            return new SpooledUpload(upload, HexFormat.of().formatHex(digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            Files.deleteIfExists(upload);
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
     }
 
-    // Utility: check image type
-    private boolean isImage(String contentType) {
-        return contentType != null && contentType.startsWith("image");
+    // Utility: check the magic number, only the first few bytes are read
+    private ImageType sniffImageType(MultipartFile file) throws IOException {
+        byte[] header;
+        try (InputStream in = file.getInputStream()) {
+            header = in.readNBytes(ImageType.HEADER_LENGTH);
+        }
+        return ImageType.detect(header)
+                .orElseThrow(() -> new IllegalArgumentException("File is not an image"));
     }
 
     // Utility: check file size (10MB max)
     private boolean isFileTooLarge(MultipartFile file) {
-        return file.getSize() > 10 * 1024 * 1024;
+        return file.getSize() > MAX_FILE_SIZE;
+    }
+
+    private record SpooledUpload(Path path, String contentHash) {
     }
 }
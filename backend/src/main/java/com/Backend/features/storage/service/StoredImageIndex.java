@@ -0,0 +1,101 @@
+package com.Backend.features.storage.service;
+
+import com.Backend.features.storage.model.ImageVariants;
+import com.Backend.features.storage.model.StoredImageKind;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Reference counted stored_images rows. Uploads acquire an existing entry for their content hash or register the
+ * files they just stored; deletes release one reference, and only the last one removes the files. Every upload
+ * stores its files under a fresh generation suffix, so deleting the files of a released entry can never hit the files
+ * of a later upload of the same content, even when that upload registers before the delete reaches the backend.
+ */
+@Component
+public class StoredImageIndex {
+
+    // Entries at zero are being deleted and must not be handed out again
+    private static final String ACQUIRE = """
+            UPDATE stored_images SET ref_count = ref_count + 1
+             WHERE content_hash = ? AND kind = ? AND ref_count > 0
+            RETURNING thumbnail_url, card_url, full_url
+            """;
+    // A concurrent upload of the same content may have registered first, then its files win and are returned
+    private static final String REGISTER = """
+            INSERT INTO stored_images (content_hash, kind, thumbnail_url, card_url, full_url, ref_count, creation_date)
+            VALUES (?, ?, ?, ?, ?, 1, ?)
+            ON CONFLICT (content_hash, kind) DO UPDATE SET ref_count = stored_images.ref_count + 1
+            RETURNING thumbnail_url, card_url, full_url
+            """;
+    private static final String RELEASE = """
+            UPDATE stored_images SET ref_count = ref_count - 1
+             WHERE full_url = ? AND ref_count > 0
+            RETURNING id, ref_count, thumbnail_url, card_url, full_url
+            """;
+    private static final String REMOVE = "DELETE FROM stored_images WHERE id = ? AND ref_count = 0";
+
+    private static final RowMapper<ImageVariants> VARIANTS = (rs, rowNum) ->
+            new ImageVariants(rs.getString("thumbnail_url"), rs.getString("card_url"), rs.getString("full_url"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public StoredImageIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Releases run from afterCommit: joining the caller's already committed transaction would never commit them
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Optional<ImageVariants> acquire(String contentHash, StoredImageKind kind) {
+        return jdbcTemplate.query(ACQUIRE, VARIANTS, contentHash, kind.ordinal()).stream().findFirst();
+    }
+
+    /**
+     * @return the files the entry refers to: {@code variants}, or those of a concurrent upload that registered first
+     */
+    public ImageVariants register(String contentHash, StoredImageKind kind, ImageVariants variants) {
+        return jdbcTemplate.queryForObject(REGISTER, VARIANTS, contentHash, kind.ordinal(), variants.getThumbnailUrl(),
+                variants.getCardUrl(), variants.getFullUrl(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Drops one reference to the entry stored at {@code fullUrl}.
+     *
+     * @return empty if no entry is stored at that URL (uploaded before the index existed), otherwise the URLs of
+     * the files to delete, which is none while other references remain
+     */
+    public Optional<Set<String>> release(String fullUrl) {
+        return transactionTemplate.execute(status -> {
+            List<Released> released = jdbcTemplate.query(RELEASE, (rs, rowNum) -> new Released(
+                    rs.getLong("id"), rs.getInt("ref_count"), VARIANTS.mapRow(rs, rowNum)), fullUrl);
+            if (released.isEmpty()) {
+                return Optional.<Set<String>>empty();
+            }
+
+            Released entry = released.get(0);
+            if (entry.refCount() > 0 || jdbcTemplate.update(REMOVE, entry.id()) == 0) {
+                return Optional.of(Set.<String>of());
+            }
+            Set<String> urls = new LinkedHashSet<>();
+            ImageVariants variants = entry.variants();
+            for (String url : Arrays.asList(variants.getThumbnailUrl(), variants.getCardUrl(), variants.getFullUrl())) {
+                if (url != null) {
+                    urls.add(url);
+                }
+            }
+            return Optional.of(urls);
+        });
+    }
+
+    private record Released(Long id, int refCount, ImageVariants variants) {
+    }
+}
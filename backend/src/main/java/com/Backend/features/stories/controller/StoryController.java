@@ -1,7 +1,7 @@
 package com.Backend.features.stories.controller;
 
 import com.Backend.dto.Response;
-import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
 import com.Backend.features.stories.story.Story;
 import com.Backend.features.stories.story.StoryReaction;
 import com.Backend.features.stories.service.StoryService;
@@ -42,8 +42,8 @@ public class StoryController {
             @RequestParam(value = "picture", required = false) MultipartFile picture,
             @RequestParam("title") String title,
             @RequestParam("content") String content,
-            @RequestAttribute("authenticatedUser") User user) throws Exception {
-        Story story = storyService.createStory(picture,title, content, user.getId());
+            @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) throws Exception {
+        Story story = storyService.createStory(picture,title, content, principal.id());
         return ResponseEntity.ok(story);
     }
 
@@ -53,8 +53,8 @@ public class StoryController {
             @PathVariable Long storyId,
             @RequestParam(value = "picture", required = false) MultipartFile picture,
             @RequestParam(value = "content", required = false) String content,
-            @RequestAttribute("authenticatedUser") User user) throws Exception {
-        Story updatedStory = storyService.updateStory(storyId, picture, content, user.getId());
+            @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) throws Exception {
+        Story updatedStory = storyService.updateStory(storyId, picture, content, principal.id());
         return ResponseEntity.ok(updatedStory);
     }
 
@@ -62,8 +62,8 @@ public class StoryController {
     @DeleteMapping("/{storyId}")
     public ResponseEntity<Response> deleteStory(
             @PathVariable Long storyId,
-            @RequestAttribute("authenticatedUser") User user) throws Exception {
-        storyService.deleteStory(storyId, user.getId());
+            @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) throws Exception {
+        storyService.deleteStory(storyId, principal.id());
         return ResponseEntity.ok(new Response("Story deleted successfully"));
     }
 
@@ -73,13 +73,13 @@ public class StoryController {
     public ResponseEntity<Story> reactToStory(
             @PathVariable Long storyId,
             @RequestParam("emoji") String emoji, // ← This matches the error message
-            @RequestAttribute("authenticatedUser") User user) throws Exception {
+            @RequestAttribute("authenticatedPrincipal") AuthenticatedPrincipal principal) throws Exception {
 
         if (emoji == null || emoji.isEmpty()) {
             throw new IllegalArgumentException("Emoji is required");
         }
 
-        Story story = storyService.reactToStory(storyId, user.getId(), emoji);
+        Story story = storyService.reactToStory(storyId, principal.id(), emoji);
         return ResponseEntity.ok(story);
     }
 
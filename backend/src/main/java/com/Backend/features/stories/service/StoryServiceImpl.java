@@ -4,6 +4,7 @@ package com.Backend.features.stories.service;
 import com.Backend.features.authentication.model.User;
 import com.Backend.features.authentication.repository.UserRepository;
 
+import com.Backend.features.storage.model.ImageVariants;
 import com.Backend.features.storage.service.StorageService;
 import com.Backend.features.stories.repository.StoryReactionRepository;
 import com.Backend.features.stories.repository.StoryRepository;
@@ -59,8 +60,9 @@ public class StoryServiceImpl implements StoryService {
         story.setUser(user);
 
         if (picture != null && !picture.isEmpty()) {
-            String imageUrl = storageService.saveImage(picture);
-            story.setImageUrl(imageUrl);
+            ImageVariants imageVariants = storageService.saveImageVariants(picture);
+            story.setImageUrl(imageVariants.getFullUrl());
+            story.setImageVariants(imageVariants);
         }
 
         return storyRepository.save(story);
@@ -75,12 +77,19 @@ public class StoryServiceImpl implements StoryService {
 
         if (content != null) story.setContent(content);
 
+        ImageVariants replacedVariants = null;
+        String replacedImageUrl = null;
         if (picture != null && !picture.isEmpty()) {
-            String imageUrl = storageService.saveImage(picture);
-            story.setImageUrl(imageUrl);
+            ImageVariants imageVariants = storageService.saveImageVariants(picture);
+            replacedVariants = story.getImageVariants();
+            replacedImageUrl = story.getImageUrl();
+            story.setImageUrl(imageVariants.getFullUrl());
+            story.setImageVariants(imageVariants);
         }
 
-        return storyRepository.save(story);
+        Story savedStory = storyRepository.save(story);
+        storageService.releaseAfterCommit(replacedVariants, replacedImageUrl);
+        return savedStory;
     }
 
     @Override
@@ -90,6 +99,7 @@ public class StoryServiceImpl implements StoryService {
             throw new Exception("You don't have permission to delete this story");
         }
         storyRepository.delete(story);
+        storageService.releaseAfterCommit(story.getImageVariants(), story.getImageUrl());
     }
 
     @Override
@@ -3,6 +3,7 @@ package com.Backend.features.stories.story;
 
 import com.Backend.features.authentication.model.User;
 import com.Backend.features.stories.story.StoryReaction;
+import com.Backend.features.storage.model.ImageVariants;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -23,6 +24,9 @@ public class Story {
     // ✅ FIX: Don't store binary data, just store URL as string
     private String imageUrl;
 
+    @Embedded
+    private ImageVariants imageVariants;
+
     public String getTitle() {
         return title;
     }
@@ -78,6 +82,14 @@ public class Story {
         this.imageUrl = imageUrl;
     }
 
+    public ImageVariants getImageVariants() {
+        return imageVariants;
+    }
+
+    public void setImageVariants(ImageVariants imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
     public User getUser() {
         return user;
     }
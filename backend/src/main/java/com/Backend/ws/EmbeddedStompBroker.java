@@ -0,0 +1,37 @@
+package com.Backend.ws;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-memory ActiveMQ Artemis with a STOMP acceptor, for tests and local runs of the relay mode without an external
+ * broker: {@code websocket.broker=relay} and {@code websocket.relay.embedded=true}. To run several local nodes,
+ * enable it on the first node only; the others keep {@code websocket.relay.embedded=false} and set
+ * {@code websocket.relay.port} to the first node's, a second embedded broker could not bind that port. Artemis is only
+ * on the development and test classpaths.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ")
+@ConditionalOnProperty(name = "websocket.relay.embedded", havingValue = "true")
+public class EmbeddedStompBroker {
+
+    // Started before the relay connects, the relay retries anyway while it is not up yet
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker(@Value("${websocket.relay.port:61613}") int port) throws Exception {
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.setJMXManagementEnabled(false);
+        // /topic destinations are publish-subscribe, like with the simple broker
+        configuration.addAcceptorConfiguration("stomp", "tcp://localhost:" + port + "?protocols=STOMP;multicastPrefix=/topic/");
+
+        EmbeddedActiveMQ server = new EmbeddedActiveMQ();
+        server.setConfiguration(configuration);
+        return server;
+    }
+}
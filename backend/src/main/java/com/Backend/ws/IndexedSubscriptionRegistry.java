@@ -0,0 +1,103 @@
+package com.Backend.ws;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Subscription registry of the simple broker for per-entity topics. Nearly every subscription is to an exact
+ * destination such as {@code /topic/users/42/notifications}, so those are kept in a hash index and a send only
+ * looks at the subscribers of its own destination. Pattern subscriptions (with {@code *} or {@code {}}) are
+ * still matched one by one, but only those. Selector headers are not supported, nothing here uses them.
+ */
+public class IndexedSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    // destination -> subscriptions to exactly that destination
+    private final Map<String, Set<Subscription>> exact = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<PatternSubscription> patterns = new CopyOnWriteArrayList<>();
+    // sessionId -> subscriptionId -> destination, to find what to remove
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    protected void addSubscriptionInternal(String sessionId, String subscriptionId, String destination, Message<?> message) {
+        String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, destination);
+        if (previous != null) {
+            remove(sessionId, subscriptionId, previous);
+        }
+
+        Subscription subscription = new Subscription(sessionId, subscriptionId);
+        if (pathMatcher.isPattern(destination)) {
+            patterns.add(new PatternSubscription(destination, subscription));
+        } else {
+            // Inside compute, so a concurrent removal of the last subscriber can't drop the set we add to
+            exact.compute(destination, (d, subscribers) -> {
+                Set<Subscription> updated = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                updated.add(subscription);
+                return updated;
+            });
+        }
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        String destination = subscriptions != null ? subscriptions.remove(subscriptionId) : null;
+        if (destination != null) {
+            remove(sessionId, subscriptionId, destination);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        Map<String, String> subscriptions = sessions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.forEach((subscriptionId, destination) -> remove(sessionId, subscriptionId, destination));
+        }
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        MultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+        Set<Subscription> subscribers = exact.get(destination);
+        if (subscribers != null) {
+            for (Subscription subscription : subscribers) {
+                result.add(subscription.sessionId(), subscription.subscriptionId());
+            }
+        }
+        for (PatternSubscription pattern : patterns) {
+            if (pathMatcher.match(pattern.pattern(), destination)) {
+                result.add(pattern.subscription().sessionId(), pattern.subscription().subscriptionId());
+            }
+        }
+        return result;
+    }
+
+    private void remove(String sessionId, String subscriptionId, String destination) {
+        Subscription subscription = new Subscription(sessionId, subscriptionId);
+        if (pathMatcher.isPattern(destination)) {
+            patterns.remove(new PatternSubscription(destination, subscription));
+            return;
+        }
+        // Drop the destination once its last subscriber leaves, per-entity topics come and go
+        exact.computeIfPresent(destination, (d, subscribers) -> {
+            subscribers.remove(subscription);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private record Subscription(String sessionId, String subscriptionId) {
+    }
+
+    private record PatternSubscription(String pattern, Subscription subscription) {
+    }
+}
@@ -1,15 +1,61 @@
 package com.Backend.ws;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP over WebSocket. With {@code websocket.broker=simple} subscriptions live in this process, which only works
+ * with a single backend node. With {@code websocket.broker=relay} every node relays /topic frames to an external
+ * STOMP broker (RabbitMQ, ActiveMQ Artemis, ...), so a frame sent on one node reaches subscribers on all of them.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocket implements WebSocketMessageBrokerConfigurer {
 
+    private final String broker;
+    private final String relayHost;
+    private final int relayPort;
+    private final String relayLogin;
+    private final String relayPasscode;
+    private final String relayVirtualHost;
+
+    public WebSocket(@Value("${websocket.broker:simple}") String broker,
+                     @Value("${websocket.relay.host:localhost}") String relayHost,
+                     @Value("${websocket.relay.port:61613}") int relayPort,
+                     @Value("${websocket.relay.login:guest}") String relayLogin,
+                     @Value("${websocket.relay.passcode:guest}") String relayPasscode,
+                     @Value("${websocket.relay.virtual-host:}") String relayVirtualHost) {
+        this.broker = broker;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.relayLogin = relayLogin;
+        this.relayPasscode = relayPasscode;
+        this.relayVirtualHost = relayVirtualHost;
+    }
+
+    // MessageBrokerRegistry has no hook for the simple broker's subscription registry, so it is swapped in
+    // before the broker starts. Static: post-processors must not pull the configuration in early
+    @Bean
+    public static BeanPostProcessor indexedSubscriptionRegistryInstaller() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof SimpleBrokerMessageHandler simpleBroker) {
+                    simpleBroker.setSubscriptionRegistry(new IndexedSubscriptionRegistry());
+                }
+                return bean;
+            }
+        };
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry){
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
@@ -17,8 +63,23 @@ public class WebSocket implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry){
-        registry.enableSimpleBroker("/topic");
+        switch (broker) {
+            case "simple" -> registry.enableSimpleBroker("/topic");
+            case "relay" -> {
+                // Clients are authenticated by AuthFilter, the broker only sees the shared system credentials
+                StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/topic")
+                        .setRelayHost(relayHost)
+                        .setRelayPort(relayPort)
+                        .setClientLogin(relayLogin)
+                        .setClientPasscode(relayPasscode)
+                        .setSystemLogin(relayLogin)
+                        .setSystemPasscode(relayPasscode);
+                if (!relayVirtualHost.isBlank()) {
+                    relay.setVirtualHost(relayVirtualHost);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported websocket.broker: " + broker);
+        }
         registry.setApplicationDestinationPrefixes("/app");
     }
 }
-
@@ -0,0 +1,72 @@
+package com.Backend.features.authentication.service;
+
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
+import com.Backend.features.authentication.utils.GoogleKeySet;
+import com.Backend.features.authentication.utils.JsonWebToken;
+import com.Backend.support.Benchmark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Auth overhead per request, a cache hit against verifying the token, with concurrent callers.
+ */
+class PrincipalCacheBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PrincipalCacheBenchmark.class);
+    private static final int THREADS = 8;
+    private static final int CALLS_PER_THREAD = 20_000;
+
+    @Benchmark
+    void cacheHitAgainstVerifyingToken() throws Exception {
+        JsonWebToken jsonWebToken = new JsonWebToken(mock(GoogleKeySet.class));
+        ReflectionTestUtils.setField(jsonWebToken, "secret", "a-test-secret-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.invokeMethod(jsonWebToken, "initKey");
+        String token = jsonWebToken.generateToken("a@mail.com");
+
+        PrincipalCache cache = new PrincipalCache(10_000, Duration.ofMinutes(1));
+        cache.put(token, new AuthenticatedPrincipal(1L, "a@mail.com", System.currentTimeMillis() + Duration.ofHours(1).toMillis()));
+        assertThat(cache.get(token)).isNotNull();
+
+        measure(jsonWebToken::parseToken, token);
+        measure(cache::get, token);
+        double parseNanos = measure(jsonWebToken::parseToken, token);
+        double cachedNanos = measure(cache::get, token);
+
+        log.info("Auth per request, {} threads: verify token {} ns, cache hit {} ns", THREADS,
+                String.format("%.0f", parseNanos), String.format("%.0f", cachedNanos));
+    }
+
+    private static double measure(Consumer<String> authenticate, String token) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int call = 0; call < CALLS_PER_THREAD; call++) {
+                        authenticate.accept(token);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            // Wall time over the calls each thread made, i.e. latency per call under contention
+            return (double) (System.nanoTime() - start) / CALLS_PER_THREAD;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.Backend.features.authentication.service;
+
+import com.Backend.features.authentication.dto.AuthenticatedPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTest {
+
+    private final long inOneHour = System.currentTimeMillis() + Duration.ofHours(1).toMillis();
+
+    @Test
+    void returnsPrincipalUntilTokenExpires() {
+        PrincipalCache cache = new PrincipalCache(100, Duration.ofMinutes(1));
+        AuthenticatedPrincipal principal = new AuthenticatedPrincipal(1L, "a@mail.com", inOneHour);
+        cache.put("token", principal);
+        cache.put("expired", new AuthenticatedPrincipal(2L, "b@mail.com", System.currentTimeMillis() - 1));
+
+        assertThat(cache.get("token")).isSameAs(principal);
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("unknown")).isNull();
+    }
+
+    @Test
+    void invalidatesEveryTokenOfUser() {
+        PrincipalCache cache = new PrincipalCache(100, Duration.ofMinutes(1));
+        cache.put("first", new AuthenticatedPrincipal(1L, "a@mail.com", inOneHour));
+        cache.put("second", new AuthenticatedPrincipal(1L, "a@mail.com", inOneHour));
+        cache.put("other", new AuthenticatedPrincipal(2L, "b@mail.com", inOneHour));
+
+        cache.invalidate(1L);
+
+        assertThat(cache.get("first")).isNull();
+        assertThat(cache.get("second")).isNull();
+        assertThat(cache.get("other")).isNotNull();
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        PrincipalCache cache = new PrincipalCache(10, Duration.ofMinutes(1));
+        for (long id = 0; id < 100; id++) {
+            cache.put("token-" + id, new AuthenticatedPrincipal(id, id + "@mail.com", inOneHour));
+        }
+
+        long cached = 0;
+        for (long id = 0; id < 100; id++) {
+            cached += cache.get("token-" + id) == null ? 0 : 1;
+        }
+        assertThat(cached).isLessThanOrEqualTo(10);
+    }
+}
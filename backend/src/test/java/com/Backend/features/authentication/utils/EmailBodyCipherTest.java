@@ -0,0 +1,40 @@
+package com.Backend.features.authentication.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailBodyCipherTest {
+
+    private static final String KEY = "test-outbox-key-test-outbox-key-0123456789";
+
+    @Test
+    void encryptsWithKey() {
+        EmailBodyCipher cipher = new EmailBodyCipher(KEY);
+
+        String stored = cipher.encrypt("Your code: 48213");
+
+        assertThat(stored).startsWith("v1:").doesNotContain("48213");
+        assertThat(cipher.decrypt(stored)).isEqualTo("Your code: 48213");
+        assertThat(cipher.decrypt("Queued before encryption")).isEqualTo("Queued before encryption");
+    }
+
+    @Test
+    void storesBodiesAsTheyAreWithoutKey() {
+        EmailBodyCipher cipher = new EmailBodyCipher("");
+
+        assertThat(cipher.encrypt("Your code: 48213")).isEqualTo("Your code: 48213");
+        assertThat(cipher.decrypt("Your code: 48213")).isEqualTo("Your code: 48213");
+        assertThatThrownBy(() -> cipher.decrypt(new EmailBodyCipher(KEY).encrypt("Your code: 48213")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("MAIL_OUTBOX_KEY");
+    }
+
+    @Test
+    void rejectsShortKeyNamingTheVariable() {
+        assertThatThrownBy(() -> new EmailBodyCipher("too-short"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("MAIL_OUTBOX_KEY");
+    }
+}
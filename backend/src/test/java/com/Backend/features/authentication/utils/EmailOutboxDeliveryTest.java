@@ -0,0 +1,117 @@
+package com.Backend.features.authentication.utils;
+
+import com.Backend.features.authentication.model.EmailStatus;
+import com.Backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Queues emails and lets the scheduled outbox worker deliver them to a MailHog SMTP stub, checked through its API.
+ */
+class EmailOutboxDeliveryTest extends PostgresIntegrationTest {
+
+    static final GenericContainer<?> MAILHOG = new GenericContainer<>("mailhog/mailhog:v1.0.1")
+            .withExposedPorts(1025, 8025)
+            .waitingFor(Wait.forHttp("/api/v2/messages").forPort(8025));
+
+    static {
+        MAILHOG.start();
+    }
+
+    @DynamicPropertySource
+    static void mailhog(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", MAILHOG::getHost);
+        registry.add("spring.mail.port", () -> MAILHOG.getMappedPort(1025));
+        registry.add("spring.mail.properties.mail.smtp.auth", () -> "false");
+        registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> "false");
+    }
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxWorker emailOutboxWorker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void deliversQueuedEmailWithEncryptedBodyAtRest() throws Exception {
+        String recipient = UUID.randomUUID() + "@example.com";
+        emailService.sendEmail(recipient, "Email Verification", "Enter this code to verify your email: 48213");
+
+        String storedBody = jdbcTemplate.queryForObject("SELECT body FROM email_outbox WHERE recipient = ?", String.class, recipient);
+        assertThat(storedBody).doesNotContain("48213");
+
+        JsonNode message = awaitMessageTo(recipient);
+        assertThat(message.at("/Content/Headers/Subject/0").asText()).isEqualTo("Email Verification");
+        assertThat(message.at("/Content/Body").asText()).contains("48213");
+
+        Integer status = awaitStatus(recipient, EmailStatus.SENT);
+        assertThat(status).isEqualTo(EmailStatus.SENT.ordinal());
+    }
+
+    @Test
+    void purgesDeliveredEmailsPastRetention() {
+        String old = UUID.randomUUID() + "@example.com";
+        String recent = UUID.randomUUID() + "@example.com";
+        LocalDateTime now = LocalDateTime.now();
+        insertSent(old, now.minusDays(30));
+        insertSent(recent, now);
+
+        emailOutboxWorker.purge();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE recipient = ?", Long.class, old)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE recipient = ?", Long.class, recent)).isOne();
+    }
+
+    private void insertSent(String recipient, LocalDateTime at) {
+        jdbcTemplate.update("""
+                INSERT INTO email_outbox (recipient, domain, subject, body, status, attempts, next_attempt_at, creation_date, sent_at)
+                VALUES (?, 'example.com', 'Subject', 'Body', ?, 0, ?, ?, ?)
+                """, recipient, EmailStatus.SENT.ordinal(), Timestamp.valueOf(at), Timestamp.valueOf(at), Timestamp.valueOf(at));
+    }
+
+    private JsonNode awaitMessageTo(String recipient) throws Exception {
+        String url = "http://" + MAILHOG.getHost() + ":" + MAILHOG.getMappedPort(8025) + "/api/v2/search?kind=to&query=" + recipient;
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (System.currentTimeMillis() < deadline) {
+            JsonNode items = objectMapper.readTree(restTemplate.getForObject(url, String.class)).path("items");
+            if (!items.isEmpty()) {
+                return items.get(0);
+            }
+            Thread.sleep(200);
+        }
+        throw new AssertionError("No email to " + recipient + " reached the SMTP stub");
+    }
+
+    private Integer awaitStatus(String recipient, EmailStatus expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        Integer status;
+        do {
+            status = jdbcTemplate.queryForObject("SELECT status FROM email_outbox WHERE recipient = ?", Integer.class, recipient);
+            if (status == expected.ordinal()) {
+                return status;
+            }
+            Thread.sleep(100);
+        } while (System.currentTimeMillis() < deadline);
+        return status;
+    }
+}
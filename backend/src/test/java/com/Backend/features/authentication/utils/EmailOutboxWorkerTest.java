@@ -0,0 +1,17 @@
+package com.Backend.features.authentication.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailOutboxWorkerTest {
+
+    @Test
+    void leaseCoversTwoBatchesOfTimedOutEmails() {
+        // The application.properties defaults: 50 emails, 5 s connect, 10 s read and write timeouts
+        assertThat(EmailOutboxWorker.leaseFor(50, 5_000, 10_000, 10_000)).isEqualTo(Duration.ofSeconds(2 * 50 * 25));
+        assertThat(EmailOutboxWorker.leaseFor(10, 5_000, 10_000, 10_000)).isEqualTo(Duration.ofSeconds(2 * 10 * 25));
+    }
+}
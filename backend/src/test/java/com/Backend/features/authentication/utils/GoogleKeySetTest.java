@@ -0,0 +1,125 @@
+package com.Backend.features.authentication.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleKeySetTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile String cacheControl = "public, max-age=3600";
+    private volatile String body;
+    private RSAPublicKey publicKey;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        publicKey = (RSAPublicKey) generator.generateKeyPair().getPublic();
+        body = """
+                {"keys": [
+                  {"kid": "rsa-key", "kty": "RSA", "alg": "RS256", "use": "sig", "n": "%s", "e": "%s"},
+                  {"kid": "ec-key", "kty": "EC", "crv": "P-256", "x": "AA", "y": "AA"}
+                ]}
+                """.formatted(base64Url(publicKey.getModulus()), base64Url(publicKey.getPublicExponent()));
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/certs", exchange -> {
+            requests.incrementAndGet();
+            byte[] response = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void resolvesRsaKeyByKid() {
+        GoogleKeySet keySet = keySet(Duration.ofHours(24));
+
+        assertThat(keySet.getKey("rsa-key")).isEqualTo(publicKey);
+        assertThat(keySet.getKey("rsa-key")).isEqualTo(publicKey);
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void rejectsUnknownKidWithoutRefetchingRightAway() {
+        GoogleKeySet keySet = keySet(Duration.ofHours(24));
+        keySet.getKey("rsa-key");
+
+        assertThatThrownBy(() -> keySet.getKey("ec-key")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> keySet.getKey("unknown")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void keepsLastKnownKeysWhenRefreshFailsWithinGrace() {
+        cacheControl = "public, max-age=0";
+        GoogleKeySet keySet = keySet(Duration.ofHours(24));
+        keySet.getKey("rsa-key");
+
+        status = 500;
+        assertThat(keySet.getKey("rsa-key")).isEqualTo(publicKey);
+        // The failed refresh is not retried on every call
+        assertThat(keySet.getKey("rsa-key")).isEqualTo(publicKey);
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void failsWhenRefreshFailsPastGrace() {
+        cacheControl = "public, max-age=0";
+        GoogleKeySet keySet = keySet(Duration.ZERO);
+        keySet.getKey("rsa-key");
+
+        status = 500;
+        assertThatThrownBy(() -> keySet.getKey("rsa-key")).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void failsWithoutKeysWhenFirstFetchFails() {
+        status = 500;
+        GoogleKeySet keySet = keySet(Duration.ofHours(24));
+
+        assertThatThrownBy(() -> keySet.getKey("rsa-key")).isInstanceOf(RuntimeException.class);
+    }
+
+    private GoogleKeySet keySet(Duration grace) {
+        return new GoogleKeySet(new RestTemplate(), "http://localhost:" + server.getAddress().getPort() + "/certs", grace);
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // Drop the sign byte BigInteger adds to values with the high bit set
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
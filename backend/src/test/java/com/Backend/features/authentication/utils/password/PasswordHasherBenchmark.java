@@ -0,0 +1,62 @@
+package com.Backend.features.authentication.utils.password;
+
+import com.Backend.support.Benchmark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The cost the iteration count buys: one hash should take long enough to make offline guessing expensive, while the
+ * pool still gets through a burst of logins. Logs hashes/sec for one thread and for the pool.
+ */
+class PasswordHasherBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasherBenchmark.class);
+    // The production default, see auth.password.pbkdf2-iterations
+    private static final int ITERATIONS = 310_000;
+
+    @Benchmark
+    void hashesPerSecond() throws Exception {
+        Pbkdf2PasswordHash pbkdf2 = new Pbkdf2PasswordHash(ITERATIONS);
+        pbkdf2.hash("warm-up");
+
+        int hashes = 10;
+        long start = System.nanoTime();
+        for (int i = 0; i < hashes; i++) {
+            pbkdf2.hash("secret");
+        }
+        double singleMillis = (System.nanoTime() - start) / 1e6 / hashes;
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        PasswordHasher hasher = new PasswordHasher(List.of(pbkdf2), Pbkdf2PasswordHash.ID, 0, 64);
+        try {
+            List<String> hashed = new ArrayList<>();
+            List<Thread> logins = new ArrayList<>();
+            start = System.nanoTime();
+            for (int i = 0; i < threads * 2; i++) {
+                logins.add(Thread.ofPlatform().start(() -> {
+                    String hash = hasher.hash("secret");
+                    synchronized (hashed) {
+                        hashed.add(hash);
+                    }
+                }));
+            }
+            for (Thread login : logins) {
+                login.join();
+            }
+            double poolPerSecond = threads * 2 / ((System.nanoTime() - start) / 1e9);
+
+            log.info("PBKDF2-SHA256 at {} iterations: {} ms per hash, {} hashes/sec on one thread, {} hashes/sec on the {} thread pool",
+                    ITERATIONS, String.format("%.1f", singleMillis), String.format("%.1f", 1000 / singleMillis),
+                    String.format("%.1f", poolPerSecond), threads);
+            assertThat(hashed).hasSize(threads * 2);
+            assertThat(hasher.matches("secret", hashed.get(0))).isTrue();
+        } finally {
+            hasher.shutdown();
+        }
+    }
+}
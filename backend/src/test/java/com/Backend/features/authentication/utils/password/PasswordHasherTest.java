@@ -0,0 +1,69 @@
+package com.Backend.features.authentication.utils.password;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    // The production default, see auth.password.pbkdf2-iterations
+    private static final int ITERATIONS = 310_000;
+
+    private final PasswordHasher hasher = hasher(ITERATIONS);
+
+    @AfterEach
+    void shutdown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void hashesWithCurrentAlgorithm() {
+        String hash = hasher.hash("secret");
+
+        assertThat(hash).startsWith("$" + Pbkdf2PasswordHash.ID + "$" + ITERATIONS + "$");
+        assertThat(hasher.matches("secret", hash)).isTrue();
+        assertThat(hasher.matches("wrong", hash)).isFalse();
+        assertThat(hasher.needsRehash(hash)).isFalse();
+    }
+
+    @Test
+    void verifiesLegacyHashesAndAsksForRehash() throws Exception {
+        String legacy = Base64.getEncoder().encodeToString(
+                MessageDigest.getInstance("SHA-256").digest("secret".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(hasher.matches("secret", legacy)).isTrue();
+        assertThat(hasher.matches("wrong", legacy)).isFalse();
+        assertThat(hasher.needsRehash(legacy)).isTrue();
+    }
+
+    @Test
+    void asksForRehashOfWeakerIterationCount() {
+        PasswordHasher weaker = hasher(1_000);
+        try {
+            String hash = weaker.hash("secret");
+
+            assertThat(hasher.matches("secret", hash)).isTrue();
+            assertThat(hasher.needsRehash(hash)).isTrue();
+        } finally {
+            weaker.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsVerifyOnlyFormatAsCurrentAlgorithm() {
+        assertThatThrownBy(() -> new PasswordHasher(List.of(new LegacySha256PasswordHash()), LegacySha256PasswordHash.ID, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PasswordHasher hasher(int iterations) {
+        return new PasswordHasher(List.of(new Pbkdf2PasswordHash(iterations), new LegacySha256PasswordHash()),
+                Pbkdf2PasswordHash.ID, 0, 64);
+    }
+}
@@ -0,0 +1,54 @@
+package com.Backend.features.feed;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.feed.dto.FeedCursor;
+import com.Backend.features.feed.model.Post;
+import com.Backend.features.feed.repository.PostRepository;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedKeysetPagingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Posts created in the same instant are told apart by id, no page repeats or skips one
+    @Test
+    void pagesThroughPostsSharingACreationDate() {
+        User author = userRepository.save(new User(UUID.randomUUID() + "@mail.com", "password"));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(postRepository.save(new Post("Post " + i, author)).getId());
+        }
+        jdbcTemplate.update("UPDATE posts SET creation_date = ? WHERE author_id = ?",
+                Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 9, 0)), author.getId());
+
+        List<Long> paged = new ArrayList<>();
+        List<Post> page = postRepository.findFeedPage(List.of(author.getId()), Limit.of(3));
+        while (!page.isEmpty()) {
+            page.forEach(post -> paged.add(post.getId()));
+            Post last = page.get(page.size() - 1);
+            FeedCursor cursor = FeedCursor.decode(new FeedCursor(last.getCreationDate(), last.getId()).encode());
+            page = postRepository.findFeedPageBefore(List.of(author.getId()), cursor.creationDate(), cursor.id(), Limit.of(3));
+        }
+
+        assertThat(paged).isEqualTo(ids.stream().sorted(Comparator.reverseOrder()).toList());
+    }
+}
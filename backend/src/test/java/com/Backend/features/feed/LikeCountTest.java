@@ -0,0 +1,67 @@
+package com.Backend.features.feed;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.feed.model.Post;
+import com.Backend.features.feed.repository.PostRepository;
+import com.Backend.features.feed.service.FeedService;
+import com.Backend.features.feed.service.LikeService;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikeCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private FeedService feedService;
+    @Autowired
+    private LikeService likeService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void savingALoadedPostKeepsTheFlushedCount() {
+        User author = user();
+        Post post = postRepository.save(new Post("Post", author));
+        Post loaded = postRepository.findById(post.getId()).orElseThrow();
+
+        likeService.toggleLike(post.getId(), user().getId());
+        likeService.toggleLike(post.getId(), user().getId());
+        likeService.flush();
+        loaded.setContent("Edited");
+        postRepository.save(loaded);
+
+        assertThat(likeCount(post.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void editingAPostClearsItsLikesAndCount() throws Exception {
+        User author = user();
+        Post post = postRepository.save(new Post("Post", author));
+        likeService.toggleLike(post.getId(), user().getId());
+        likeService.flush();
+
+        feedService.editPost(post.getId(), author.getId(), null, "Edited");
+        likeService.flush();
+
+        assertThat(likeCount(post.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts_likes WHERE post_id = ?", Long.class, post.getId())).isZero();
+    }
+
+    private User user() {
+        return userRepository.save(new User(UUID.randomUUID() + "@mail.com", "password"));
+    }
+
+    private long likeCount(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM posts WHERE id = ?", Long.class, postId);
+    }
+}
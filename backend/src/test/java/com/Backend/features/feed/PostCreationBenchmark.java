@@ -0,0 +1,69 @@
+package com.Backend.features.feed;
+
+import com.Backend.features.feed.service.FeedService;
+import com.Backend.support.Benchmark;
+import com.Backend.support.PostgresIntegrationTest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of creating a post as seen by the request, for authors with 10 to 10,000 accepted connections. The feed
+ * frame is encoded once and sent off the request thread, so the broadcast should not show up in it; the timeline
+ * fan-out does up to {@code feed.timeline.fanout-threshold} connections.
+ */
+class PostCreationBenchmark extends PostgresIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PostCreationBenchmark.class);
+    private static final int WARM_UP = 5;
+    private static final int MEASURED = 30;
+
+    @Autowired
+    private FeedService feedService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Benchmark
+    void postCreationLatencyByConnectionCount() throws Exception {
+        for (int connections : new int[]{10, 100, 1_000, 10_000}) {
+            long authorId = authorWithConnections(connections);
+            for (int i = 0; i < WARM_UP; i++) {
+                feedService.createPost(null, "Warm-up " + i, authorId);
+            }
+
+            long[] nanos = new long[MEASURED];
+            for (int i = 0; i < MEASURED; i++) {
+                long start = System.nanoTime();
+                feedService.createPost(null, "Post " + i, authorId);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+
+            log.info("Post creation with {} connections: median {} ms, p90 {} ms", connections,
+                    String.format("%.2f", nanos[MEASURED / 2] / 1e6), String.format("%.2f", nanos[MEASURED * 9 / 10] / 1e6));
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts WHERE author_id = ?", Long.class, authorId))
+                    .isEqualTo(WARM_UP + MEASURED);
+        }
+    }
+
+    private long authorWithConnections(int connections) {
+        String run = UUID.randomUUID().toString();
+        Long authorId = jdbcTemplate.queryForObject("INSERT INTO users (email) VALUES (?) RETURNING id", Long.class,
+                "author-" + run + "@mail.com");
+        jdbcTemplate.update("""
+                INSERT INTO users (email) SELECT 'reader-' || g || '-' || ? || '@mail.com' FROM generate_series(1, ?) g
+                """, run, connections);
+        // status 1 is ACCEPTED
+        jdbcTemplate.update("""
+                INSERT INTO connections (author_id, recipient_id, status, seen)
+                SELECT ?, id, 1, false FROM users WHERE email LIKE 'reader-%-' || ? || '@mail.com'
+                """, authorId, run);
+        return authorId;
+    }
+}
@@ -0,0 +1,93 @@
+package com.Backend.features.feed;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.feed.model.Post;
+import com.Backend.features.feed.service.FeedService;
+import com.Backend.features.storage.model.ImageVariants;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "storage.backend=local",
+        "storage.local.root=${java.io.tmpdir}/speakly-test-uploads"
+})
+class PostPictureReleaseTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private FeedService feedService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${storage.local.root}")
+    private Path root;
+
+    @Test
+    void sharedPictureSurvivesOneDeleteAndGoesWithTheSecond() throws Exception {
+        User author = user();
+        MockMultipartFile picture = png();
+        Post first = feedService.createPost(picture, "First", author.getId());
+        Post second = feedService.createPost(picture, "Second", author.getId());
+        assertThat(second.getPicture()).isEqualTo(first.getPicture());
+        List<Path> files = stored(first.getPictureVariants());
+        assertThat(files).isNotEmpty().allMatch(file -> file.toFile().exists());
+
+        feedService.deletePost(first.getId(), author.getId());
+        assertThat(files).allMatch(file -> file.toFile().exists());
+
+        feedService.deletePost(second.getId(), author.getId());
+        assertThat(files).noneMatch(file -> file.toFile().exists());
+    }
+
+    @Test
+    void replacedPictureIsReleasedOnceTheEditCommits() throws Exception {
+        User author = user();
+        Post post = feedService.createPost(png(), "Post", author.getId());
+        List<Path> replaced = stored(post.getPictureVariants());
+
+        Post edited = feedService.editPost(post.getId(), author.getId(), png(), "Edited");
+
+        assertThat(replaced).noneMatch(file -> file.toFile().exists());
+        assertThat(stored(edited.getPictureVariants())).allMatch(file -> file.toFile().exists());
+    }
+
+    private List<Path> stored(ImageVariants variants) {
+        return Stream.of(variants.getThumbnailUrl(), variants.getCardUrl(), variants.getFullUrl())
+                .distinct()
+                .map(url -> root.resolve(url.substring(url.lastIndexOf('/') + 1)))
+                .toList();
+    }
+
+    private User user() {
+        return userRepository.save(new User(UUID.randomUUID() + "@mail.com", "password"));
+    }
+
+    // Random pixels, so every test uploads content of its own
+    private static MockMultipartFile png() throws IOException {
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                image.setRGB(x, y, ThreadLocalRandom.current().nextInt());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return new MockMultipartFile("picture", "image.png", "image/png", out.toByteArray());
+    }
+}
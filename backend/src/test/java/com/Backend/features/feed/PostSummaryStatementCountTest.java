@@ -0,0 +1,71 @@
+package com.Backend.features.feed;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.feed.dto.FeedPage;
+import com.Backend.features.feed.dto.PostSummary;
+import com.Backend.features.feed.model.Comment;
+import com.Backend.features.feed.model.Post;
+import com.Backend.features.feed.repository.CommentRepository;
+import com.Backend.features.feed.repository.PostRepository;
+import com.Backend.features.feed.service.FeedService;
+import com.Backend.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostSummaryStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private FeedService feedService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void summaryPageIsOneStatementWhateverTheLikesAndComments() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = new User(UUID.randomUUID() + "@mail.com", "password");
+            user.setFirstName("User" + i);
+            users.add(userRepository.save(user));
+        }
+        for (int i = 0; i < 10; i++) {
+            Post post = postRepository.save(new Post("Post " + i, users.get(i % users.size())));
+            for (User user : users) {
+                jdbcTemplate.update("INSERT INTO posts_likes (post_id, user_id) VALUES (?, ?)", post.getId(), user.getId());
+                commentRepository.save(new Comment(post, user, "Comment"));
+            }
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        FeedPage<PostSummary> firstPage = feedService.getAllPostSummaries(users.get(0).getId(), null, 5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        FeedPage<PostSummary> secondPage = feedService.getAllPostSummaries(users.get(0).getId(), firstPage.nextCursor(), 5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(firstPage.posts()).hasSize(5);
+        assertThat(secondPage.posts()).isNotEmpty();
+        assertThat(firstPage.posts().get(0).commentCount()).isEqualTo(users.size());
+        assertThat(firstPage.posts().get(0).likedByMe()).isTrue();
+    }
+}
@@ -0,0 +1,28 @@
+package com.Backend.features.feed.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000), 42L);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=");
+        assertThat(FeedCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        assertThatThrownBy(() -> FeedCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid feed cursor.");
+    }
+}
@@ -0,0 +1,64 @@
+package com.Backend.features.feed.service;
+
+import com.Backend.features.feed.dto.TimelineItem;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableTimelineStoreTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TableTimelineStore store;
+
+    @Value("${feed.timeline.capacity}")
+    private int capacity;
+
+    @Test
+    void fansOutToEveryTimelineAndIgnoresRepeatedPushes() {
+        long firstUserId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        long secondUserId = firstUserId - 1;
+        TimelineItem item = new TimelineItem(1L, 7L, LocalDateTime.of(2024, 1, 1, 9, 0));
+
+        store.push(List.of(firstUserId, secondUserId), item);
+        store.push(List.of(firstUserId), item);
+
+        assertThat(store.range(firstUserId, null, 10)).containsExactly(item);
+        assertThat(store.range(secondUserId, null, 10)).containsExactly(item);
+    }
+
+    @Test
+    void trimKeepsTheNewestEntriesOfEachTimeline() {
+        long userId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        List<TimelineItem> items = new ArrayList<>();
+        for (int i = 0; i < capacity + 5; i++) {
+            items.add(new TimelineItem((long) i, 7L, LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i)));
+        }
+        store.pushAll(userId, items);
+
+        store.trimTimelines();
+
+        List<TimelineItem> kept = store.range(userId, null, capacity + 5);
+        assertThat(kept).hasSize(capacity);
+        assertThat(kept.get(0)).isEqualTo(items.get(items.size() - 1));
+        assertThat(kept.get(capacity - 1)).isEqualTo(items.get(5));
+    }
+
+    @Test
+    void remembersMaterializedTimelines() {
+        long userId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+
+        assertThat(store.isMaterialized(userId)).isFalse();
+        store.markMaterialized(userId);
+        store.markMaterialized(userId);
+
+        assertThat(store.isMaterialized(userId)).isTrue();
+    }
+}
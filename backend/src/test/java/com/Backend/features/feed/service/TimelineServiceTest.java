@@ -0,0 +1,99 @@
+package com.Backend.features.feed.service;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.feed.dto.FeedPage;
+import com.Backend.features.feed.model.Post;
+import com.Backend.features.feed.repository.PostRepository;
+import com.Backend.features.network.model.Status;
+import com.Backend.features.network.repository.ConnectionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class TimelineServiceTest {
+
+    private static final int CAPACITY = 3;
+
+    private final ConnectionRepository connectionRepository = mock(ConnectionRepository.class);
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final InMemoryTimelineStore store = new InMemoryTimelineStore(CAPACITY);
+    private final TimelineService timelineService = new TimelineService(store, connectionRepository, postRepository, CAPACITY, 2);
+
+    @Test
+    void pushesNewPostToEveryConnection() {
+        when(connectionRepository.findConnectedUserIds(1L, Status.ACCEPTED)).thenReturn(List.of(2L, 3L));
+
+        timelineService.fanOut(post(10L, 1L, 0));
+
+        assertThat(store.range(2L, null, 10)).extracting(item -> item.postId()).containsExactly(10L);
+        assertThat(store.range(3L, null, 10)).extracting(item -> item.postId()).containsExactly(10L);
+    }
+
+    @Test
+    void leavesPostsOfHighFanOutAuthorsToReadTime() {
+        when(connectionRepository.findConnectedUserIds(1L, Status.ACCEPTED)).thenReturn(List.of(2L, 3L, 4L));
+
+        timelineService.fanOut(post(10L, 1L, 0));
+
+        assertThat(store.range(2L, null, 10)).isEmpty();
+    }
+
+    @Test
+    void keepsOnlyTheNewestEntriesUpToCapacity() {
+        when(connectionRepository.findConnectedUserIds(1L, Status.ACCEPTED)).thenReturn(List.of(2L));
+
+        for (long postId = 10; postId < 15; postId++) {
+            timelineService.fanOut(post(postId, 1L, (int) postId));
+        }
+
+        assertThat(store.range(2L, null, 10)).extracting(item -> item.postId()).containsExactly(14L, 13L, 12L);
+    }
+
+    @Test
+    void seedsTimelineOnceEvenWhenThereIsNothingToShow() {
+        when(connectionRepository.findConnectedUserIds(2L, Status.ACCEPTED)).thenReturn(List.of(1L));
+        when(postRepository.findFeedPage(anyCollection(), any())).thenReturn(List.of());
+
+        FeedPage<Post> first = timelineService.getTimeline(2L, null, 10);
+        FeedPage<Post> second = timelineService.getTimeline(2L, null, 10);
+
+        assertThat(first.posts()).isEmpty();
+        assertThat(second.posts()).isEmpty();
+        assertThat(store.isMaterialized(2L)).isTrue();
+        verify(postRepository, times(1)).findFeedPage(anyCollection(), any());
+    }
+
+    @Test
+    void seedsTimelineThatOnlyHoldsPostsPushedBeforeTheFirstRead() {
+        Post older = post(10L, 1L, 0);
+        Post pushed = post(11L, 1L, 1);
+        when(connectionRepository.findConnectedUserIds(1L, Status.ACCEPTED)).thenReturn(List.of(2L));
+        when(connectionRepository.findConnectedUserIds(2L, Status.ACCEPTED)).thenReturn(List.of(1L));
+        when(postRepository.findFeedPage(anyCollection(), any())).thenReturn(List.of(pushed, older));
+        when(postRepository.findWithAuthorByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return List.of(pushed, older).stream().filter(post -> ids.contains(post.getId())).toList();
+        });
+        timelineService.fanOut(pushed);
+
+        FeedPage<Post> page = timelineService.getTimeline(2L, null, 10);
+
+        assertThat(page.posts()).extracting(Post::getId).containsExactly(11L, 10L);
+    }
+
+    private static Post post(Long id, Long authorId, int minute) {
+        User author = new User();
+        author.setId(authorId);
+        Post post = new Post("Post " + id, author);
+        post.setId(id);
+        post.setCreationDate(LocalDateTime.of(2024, 1, 1, 9, minute));
+        return post;
+    }
+}
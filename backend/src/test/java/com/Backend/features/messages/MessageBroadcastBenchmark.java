@@ -0,0 +1,88 @@
+package com.Backend.features.messages;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.messages.model.Conversation;
+import com.Backend.features.messages.service.MessageService;
+import com.Backend.support.Benchmark;
+import com.Backend.support.PostgresIntegrationTest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes handed to the broker for one sent message, the message frame plus both participants' conversation events,
+ * for conversations with 10 to 10,000 earlier messages.
+ */
+class MessageBroadcastBenchmark extends PostgresIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageBroadcastBenchmark.class);
+    private static final int SENT = 20;
+
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    @Qualifier("brokerChannel")
+    private AbstractSubscribableChannel brokerChannel;
+
+    @Benchmark
+    void broadcastBytesPerMessageByConversationLength() {
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong frames = new AtomicLong();
+        ChannelInterceptor counter = new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if (destination != null && destination.contains("/conversations") && message.getPayload() instanceof byte[] payload) {
+                    bytes.addAndGet(payload.length);
+                    frames.incrementAndGet();
+                }
+                return message;
+            }
+        };
+        brokerChannel.addInterceptor(counter);
+        try {
+            for (int history : new int[]{10, 100, 1_000, 10_000}) {
+                User author = user();
+                User recipient = user();
+                Conversation conversation = messageService.createConversationAndAddMessage(author, recipient.getId(), "First");
+                jdbcTemplate.update("""
+                        INSERT INTO messages (sender_id, receiver_id, conversation_id, content, is_read, created_at)
+                        SELECT ?, ?, ?, 'Earlier message ' || g, false, now() FROM generate_series(1, ?) g
+                        """, author.getId(), recipient.getId(), conversation.getId(), history - 1);
+
+                bytes.set(0);
+                frames.set(0);
+                for (int i = 0; i < SENT; i++) {
+                    messageService.addMessageToConversation(conversation.getId(), author, recipient.getId(), "Message " + i);
+                }
+
+                log.info("Conversation with {} messages: {} bytes in {} frames per sent message", history,
+                        bytes.get() / SENT, frames.get() / SENT);
+                assertThat(frames.get()).isEqualTo(3L * SENT);
+            }
+        } finally {
+            brokerChannel.removeInterceptor(counter);
+        }
+    }
+
+    private User user() {
+        return userRepository.save(new User(UUID.randomUUID() + "@mail.com", "password"));
+    }
+}
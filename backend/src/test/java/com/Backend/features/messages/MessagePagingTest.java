@@ -0,0 +1,95 @@
+package com.Backend.features.messages;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.messages.dto.ConversationSummary;
+import com.Backend.features.messages.dto.MessagePage;
+import com.Backend.features.messages.model.Conversation;
+import com.Backend.features.messages.model.Message;
+import com.Backend.features.messages.repository.ConversationRepository;
+import com.Backend.features.messages.service.MessageService;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessagePagingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private ConversationRepository conversationRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void pagesBackwardsWithBefore() {
+        User author = user();
+        User recipient = user();
+        Conversation conversation = messageService.createConversationAndAddMessage(author, recipient.getId(), "Message 0");
+        List<Long> sent = new ArrayList<>(List.of(latestMessageId(author, conversation)));
+        for (int i = 1; i < 7; i++) {
+            sent.add(messageService.addMessageToConversation(conversation.getId(), author, recipient.getId(), "Message " + i).getId());
+        }
+
+        List<Long> paged = new ArrayList<>();
+        MessagePage page = messageService.getMessages(recipient.getId(), conversation.getId(), null, 3);
+        List<Integer> sizes = new ArrayList<>();
+        while (true) {
+            sizes.add(page.messages().size());
+            page.messages().forEach(message -> paged.add(message.getId()));
+            if (page.nextBefore() == null) {
+                break;
+            }
+            assertThat(page.nextBefore()).isEqualTo(page.messages().get(page.messages().size() - 1).getId());
+            page = messageService.getMessages(recipient.getId(), conversation.getId(), page.nextBefore(), 3);
+        }
+
+        assertThat(sizes).containsExactly(3, 3, 1);
+        assertThat(paged).isEqualTo(sent.reversed());
+    }
+
+    @Test
+    void summarizesConversationsWithAndWithoutMessages() {
+        User viewer = user();
+        User talkative = user();
+        User silent = user();
+        Conversation withMessages = messageService.createConversationAndAddMessage(talkative, viewer.getId(), "Hello");
+        Message last = messageService.addMessageToConversation(withMessages.getId(), talkative, viewer.getId(), "x".repeat(200));
+        Conversation empty = conversationRepository.save(new Conversation(viewer, silent));
+
+        List<ConversationSummary> summaries = messageService.getConversationSummaries(viewer.getId());
+
+        assertThat(summaries).extracting(ConversationSummary::id).containsExactly(withMessages.getId(), empty.getId());
+        ConversationSummary active = summaries.get(0);
+        assertThat(active.author().id()).isEqualTo(talkative.getId());
+        assertThat(active.recipient().id()).isEqualTo(viewer.getId());
+        assertThat(active.lastMessage().id()).isEqualTo(last.getId());
+        assertThat(active.lastMessage().senderId()).isEqualTo(talkative.getId());
+        assertThat(active.lastMessage().preview()).hasSize(ConversationSummary.PREVIEW_LENGTH);
+        assertThat(active.unreadCount()).isEqualTo(2);
+
+        ConversationSummary quiet = summaries.get(1);
+        assertThat(quiet.lastMessage()).isNull();
+        assertThat(quiet.unreadCount()).isZero();
+        assertThat(quiet.recipient().id()).isEqualTo(silent.getId());
+
+        // The sender has nothing to read
+        assertThat(messageService.getConversationSummaries(talkative.getId()))
+                .singleElement()
+                .satisfies(summary -> assertThat(summary.unreadCount()).isZero());
+    }
+
+    private Long latestMessageId(User participant, Conversation conversation) {
+        return messageService.getMessages(participant.getId(), conversation.getId(), null, 1).messages().get(0).getId();
+    }
+
+    private User user() {
+        return userRepository.save(new User(UUID.randomUUID() + "@mail.com", "password"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.Backend.features.messages;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.authentication.utils.JsonWebToken;
+import com.Backend.features.messages.dto.ConversationSummary;
+import com.Backend.features.messages.model.Conversation;
+import com.Backend.features.messages.model.Message;
+import com.Backend.features.messages.service.MessageService;
+import com.Backend.features.messages.service.ReadWatermarkBackfill;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class ReadWatermarkTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JsonWebToken jsonWebToken;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void oneReadUpToCallZeroesTheUnreadCount() throws Exception {
+        User sender = user();
+        User reader = user();
+        Conversation conversation = messageService.createConversationAndAddMessage(sender, reader.getId(), "First");
+        messageService.addMessageToConversation(conversation.getId(), sender, reader.getId(), "Second");
+        Message last = messageService.addMessageToConversation(conversation.getId(), sender, reader.getId(), "Third");
+        assertThat(unreadCount(reader)).isEqualTo(3);
+
+        mockMvc.perform(put("/api/v1/messaging/conversations/{conversationId}/read/{messageId}", conversation.getId(), last.getId())
+                        .header("Authorization", "Bearer " + jsonWebToken.generateToken(reader.getEmail())))
+                .andExpect(status().isOk());
+
+        assertThat(unreadCount(reader)).isZero();
+        mockMvc.perform(get("/api/v1/messaging/conversations/{conversationId}/messages", conversation.getId())
+                        .header("Authorization", "Bearer " + jsonWebToken.generateToken(sender.getEmail())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages.length()").value(3))
+                .andExpect(jsonPath("$.messages[*].isRead").value(everyItem(is(true))));
+    }
+
+    @Test
+    void legacyReadFlagsDoNotCountAsUnread() {
+        User sender = user();
+        User reader = user();
+        Conversation conversation = messageService.createConversationAndAddMessage(sender, reader.getId(), "First");
+        Message read = messageService.addMessageToConversation(conversation.getId(), sender, reader.getId(), "Read before watermarks");
+        messageService.addMessageToConversation(conversation.getId(), sender, reader.getId(), "Unread");
+        jdbcTemplate.update("UPDATE messages SET is_read = true WHERE conversation_id = ? AND id <= ?", conversation.getId(), read.getId());
+
+        new ReadWatermarkBackfill(jdbcTemplate, new DataSourceTransactionManager(jdbcTemplate.getDataSource()))
+                .afterSingletonsInstantiated();
+
+        assertThat(unreadCount(reader)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM messages WHERE conversation_id = ? AND is_read",
+                Long.class, conversation.getId())).isZero();
+    }
+
+    private long unreadCount(User user) {
+        return messageService.getConversationSummaries(user.getId()).stream()
+                .mapToLong(ConversationSummary::unreadCount)
+                .sum();
+    }
+
+    private User user() {
+        return userRepository.save(new User(UUID.randomUUID() + "@mail.com", "password"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.Backend.features.messages.service;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.service.AuthService;
+import com.Backend.features.messages.dto.ConversationEvent;
+import com.Backend.features.messages.model.Conversation;
+import com.Backend.features.messages.model.Message;
+import com.Backend.features.messages.repository.ConversationRepository;
+import com.Backend.features.messages.repository.MessageRepository;
+import com.Backend.features.notifications.service.NotificationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * What a sent message pushes to the participants must not grow with the conversation's history.
+ */
+class ConversationEventSizeTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void framesOfASentMessageDoNotDependOnTheHistory() throws Exception {
+        Frames empty = send(0);
+        Frames longHistory = send(10_000);
+
+        assertThat(longHistory.eventBytes()).isEqualTo(empty.eventBytes());
+        assertThat(longHistory.messageBytes()).isEqualTo(empty.messageBytes());
+    }
+
+    // Sends one message to a conversation with the given number of earlier messages, all ids and counts fixed
+    private Frames send(int history) throws Exception {
+        ConversationRepository conversationRepository = mock(ConversationRepository.class);
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        AuthService authService = mock(AuthService.class);
+        NotificationService notificationService = mock(NotificationService.class);
+        MessageService messageService = new MessageService(conversationRepository, messageRepository, authService, notificationService);
+
+        User author = user(1L);
+        User recipient = user(2L);
+        Conversation conversation = new Conversation(author, recipient);
+        conversation.setId(7L);
+        for (int i = 0; i < history; i++) {
+            Message earlier = new Message(author, recipient, conversation, "Earlier message " + i);
+            earlier.setId((long) i + 1);
+            conversation.getMessages().add(earlier);
+        }
+        when(conversationRepository.findById(7L)).thenReturn(Optional.of(conversation));
+        when(authService.getUserById(2L)).thenReturn(recipient);
+        when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            message.setId(100_000L);
+            return message;
+        });
+        when(conversationRepository.incrementVersion(7L)).thenReturn(42L);
+        when(messageRepository.countUnread(eq(7L), anyLong())).thenReturn(3L);
+
+        messageService.addMessageToConversation(7L, author, 2L, "Hello");
+
+        ArgumentCaptor<ConversationEvent> events = ArgumentCaptor.forClass(ConversationEvent.class);
+        verify(notificationService, times(2)).sendConversationEvent(anyLong(), events.capture());
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(notificationService).sendMessageToConversation(eq(7L), messages.capture());
+
+        int eventBytes = 0;
+        for (ConversationEvent event : events.getAllValues()) {
+            eventBytes += objectMapper.writeValueAsBytes(event).length;
+        }
+        return new Frames(eventBytes, objectMapper.writeValueAsBytes(messages.getValue()).length);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private record Frames(int eventBytes, int messageBytes) {
+    }
+}
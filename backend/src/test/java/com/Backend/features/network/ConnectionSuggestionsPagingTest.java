@@ -0,0 +1,78 @@
+package com.Backend.features.network;
+
+import com.Backend.features.authentication.dto.UserCard;
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.network.model.Connection;
+import com.Backend.features.network.model.Status;
+import com.Backend.features.network.repository.ConnectionRepository;
+import com.Backend.features.network.service.ConnectionService;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionSuggestionsPagingTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ConnectionService connectionService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Test
+    void pagesThroughUnconnectedUsersOnly() {
+        User user = user();
+        List<User> others = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            others.add(user());
+        }
+        // Pending and accepted, sent and received: all of them exclude the other user
+        connectionRepository.save(new Connection(user, others.get(0)));
+        connectionRepository.save(new Connection(others.get(2), user));
+        connect(user, others.get(4));
+        connect(others.get(6), user);
+
+        List<Long> suggested = new ArrayList<>();
+        Long after = null;
+        List<UserCard> page;
+        do {
+            page = connectionService.getConnectionSuggestions(user.getId(), after, 2);
+            assertThat(page).hasSizeLessThanOrEqualTo(2);
+            page.forEach(card -> suggested.add(card.id()));
+            after = page.isEmpty() ? after : page.get(page.size() - 1).id();
+        } while (!page.isEmpty());
+
+        assertThat(suggested).isSorted().doesNotHaveDuplicates()
+                .doesNotContain(user.getId(), others.get(0).getId(), others.get(2).getId(), others.get(4).getId(), others.get(6).getId())
+                .contains(others.get(1).getId(), others.get(3).getId(), others.get(5).getId());
+    }
+
+    @Test
+    void startsAfterTheGivenId() {
+        User user = user();
+        User first = user();
+        User second = user();
+
+        List<UserCard> page = connectionService.getConnectionSuggestions(user.getId(), first.getId(), 50);
+
+        assertThat(page).extracting(UserCard::id).doesNotContain(first.getId()).contains(second.getId());
+        assertThat(page).extracting(UserCard::id).allMatch(id -> id > first.getId());
+    }
+
+    private void connect(User author, User recipient) {
+        Connection connection = new Connection(author, recipient);
+        connection.setStatus(Status.ACCEPTED);
+        connectionRepository.save(connection);
+    }
+
+    private User user() {
+        return userRepository.save(new User(UUID.randomUUID() + "@mail.com", "password"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.Backend.features.network.service;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.network.dto.ConnectionEdge;
+import com.Backend.features.network.model.Status;
+import com.Backend.features.network.repository.ConnectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecommendationServiceTest {
+
+    private final ConnectionRepository connectionRepository = mock(ConnectionRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SocialGraphIndex index = new SocialGraphIndex(connectionRepository);
+    private final RecommendationService recommendations = new RecommendationService(userRepository, index, Duration.ofMinutes(10));
+
+    @BeforeEach
+    void setUp() {
+        // 1 - 2 - 4: user 4 is the only second degree candidate of user 1
+        when(connectionRepository.findAllEdges()).thenReturn(List.of(
+                new ConnectionEdge(1L, 2L, Status.ACCEPTED), new ConnectionEdge(2L, 4L, Status.ACCEPTED)));
+        index.reload();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L)));
+    }
+
+    @Test
+    void reusesCachedRecommendations() {
+        loadUsersById(() -> {
+        });
+
+        assertThat(ids(recommendations.getRecommendations(1L, 10))).containsExactly(4L);
+        assertThat(ids(recommendations.getRecommendations(1L, 10))).containsExactly(4L);
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void invalidationDuringRefreshIsNotOverwrittenByTheStaleResult() {
+        // User 5 connects to user 2 after the refresh picked its candidates but before it stored them
+        AtomicBoolean raced = new AtomicBoolean();
+        loadUsersById(() -> {
+            if (raced.compareAndSet(false, true)) {
+                index.accepted(2L, 5L);
+                recommendations.connectionChanged(2L, 5L);
+            }
+        });
+
+        assertThat(ids(recommendations.getRecommendations(1L, 10))).containsExactly(4L);
+        assertThat(ids(recommendations.getRecommendations(1L, 10))).containsExactlyInAnyOrder(4L, 5L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void invalidationAfterRefreshDropsTheEntry() {
+        loadUsersById(() -> {
+        });
+        recommendations.getRecommendations(1L, 10);
+
+        index.accepted(2L, 5L);
+        recommendations.connectionChanged(2L, 5L);
+
+        assertThat(ids(recommendations.getRecommendations(1L, 10))).containsExactlyInAnyOrder(4L, 5L);
+    }
+
+    private void loadUsersById(Runnable beforeLoad) {
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            beforeLoad.run();
+            Iterable<Long> ids = invocation.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false).map(RecommendationServiceTest::user).toList();
+        });
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setProfileComplete(true);
+        return user;
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.Backend.features.network.service;
+
+import com.Backend.features.network.dto.ConnectionEdge;
+import com.Backend.features.network.model.Status;
+import com.Backend.features.network.repository.ConnectionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SocialGraphIndexTest {
+
+    private final ConnectionRepository connectionRepository = mock(ConnectionRepository.class);
+    private final SocialGraphIndex index = new SocialGraphIndex(connectionRepository);
+
+    @Test
+    void keepsConnectionAcceptedWhileReloading() {
+        when(connectionRepository.findAllEdges()).thenAnswer(invocation -> {
+            index.accepted(1L, 2L);
+            return List.of(new ConnectionEdge(1L, 3L, Status.ACCEPTED));
+        });
+
+        index.reload();
+
+        assertThat(index.acceptedOf(1L)).containsExactly(2L, 3L);
+        assertThat(index.acceptedOf(2L)).containsExactly(1L);
+    }
+
+    @Test
+    void keepsConnectionRemovedWhileReloading() {
+        when(connectionRepository.findAllEdges()).thenAnswer(invocation -> {
+            index.removed(1L, 2L);
+            return List.of(new ConnectionEdge(1L, 2L, Status.ACCEPTED), new ConnectionEdge(1L, 3L, Status.PENDING));
+        });
+
+        index.reload();
+
+        assertThat(index.acceptedOf(1L)).isEmpty();
+        assertThat(index.relatedOf(1L)).containsExactly(3L);
+    }
+
+    @Test
+    void keepsDeletedUserOutAfterReload() {
+        when(connectionRepository.findAllEdges()).thenAnswer(invocation -> {
+            index.userDeleted(1L);
+            return List.of(new ConnectionEdge(1L, 2L, Status.ACCEPTED), new ConnectionEdge(2L, 3L, Status.ACCEPTED));
+        });
+
+        index.reload();
+
+        assertThat(index.relatedOf(1L)).isEmpty();
+        assertThat(index.acceptedOf(2L)).containsExactly(3L);
+    }
+}
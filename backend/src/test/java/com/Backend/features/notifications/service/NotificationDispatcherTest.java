@@ -0,0 +1,71 @@
+package com.Backend.features.notifications.service;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.notifications.model.NotificationType;
+import com.Backend.features.notifications.model.Notifications;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationDispatcherTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void groupsActionsAndCountsReadGroupsAsUnreadAgain() throws InterruptedException {
+        User recipient = user();
+        User alice = user();
+        User bob = user();
+        long firstPost = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        long secondPost = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+
+        deliver(List.of(
+                new Notifications(recipient, alice, NotificationType.LIKE, firstPost),
+                new Notifications(recipient, bob, NotificationType.LIKE, firstPost),
+                new Notifications(recipient, alice, NotificationType.COMMENT, secondPost)));
+
+        assertThat(actorCount(recipient, NotificationType.LIKE, firstPost)).isEqualTo(2);
+        assertThat(actorCount(recipient, NotificationType.COMMENT, secondPost)).isEqualTo(1);
+        assertThat(unreadCounter.get(recipient.getId())).isEqualTo(2);
+
+        unreadCounter.markAllRead(recipient.getId());
+        deliver(List.of(new Notifications(recipient, user(), NotificationType.LIKE, firstPost)));
+
+        assertThat(actorCount(recipient, NotificationType.LIKE, firstPost)).isEqualTo(3);
+        assertThat(unreadCounter.get(recipient.getId())).isEqualTo(1);
+    }
+
+    private User user() {
+        return userRepository.save(new User(UUID.randomUUID() + "@mail.com", "password"));
+    }
+
+    private void deliver(List<Notifications> notifications) throws InterruptedException {
+        long delivered = dispatcher.getStats().delivered();
+        notifications.forEach(dispatcher::dispatch);
+        for (int i = 0; i < 100 && dispatcher.getStats().delivered() < delivered + notifications.size(); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(dispatcher.getStats().delivered()).isGreaterThanOrEqualTo(delivered + notifications.size());
+    }
+
+    private int actorCount(User recipient, NotificationType type, long resourceId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT SUM(actor_count) FROM notifications WHERE recipient_id = ? AND type = ? AND resource_id = ?",
+                Integer.class, recipient.getId(), type.ordinal(), resourceId);
+    }
+}
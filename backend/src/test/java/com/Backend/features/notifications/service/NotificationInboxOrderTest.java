@@ -0,0 +1,63 @@
+package com.Backend.features.notifications.service;
+
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.notifications.dto.NotificationPage;
+import com.Backend.features.notifications.dto.NotificationView;
+import com.Backend.features.notifications.model.NotificationType;
+import com.Backend.features.notifications.model.Notifications;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationInboxOrderTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void groupThatGainsAnActorMovesBackToTheTop() throws InterruptedException {
+        User recipient = user();
+        long firstPost = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        long secondPost = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+
+        deliver(new Notifications(recipient, user(), NotificationType.LIKE, firstPost));
+        deliver(new Notifications(recipient, user(), NotificationType.LIKE, secondPost));
+        assertThat(notificationService.getInbox(recipient.getId(), null, 10).notifications())
+                .extracting(NotificationView::resourceId)
+                .containsExactly(secondPost, firstPost);
+
+        deliver(new Notifications(recipient, user(), NotificationType.LIKE, firstPost));
+        NotificationPage firstPage = notificationService.getInbox(recipient.getId(), null, 1);
+        assertThat(firstPage.notifications()).extracting(NotificationView::resourceId).containsExactly(firstPost);
+        assertThat(firstPage.notifications().get(0).actorCount()).isEqualTo(2);
+
+        NotificationPage secondPage = notificationService.getInbox(recipient.getId(), firstPage.nextBefore(), 1);
+        assertThat(secondPage.notifications()).extracting(NotificationView::resourceId).containsExactly(secondPost);
+        assertThat(secondPage.nextBefore()).isNull();
+    }
+
+    private User user() {
+        return userRepository.save(new User(UUID.randomUUID() + "@mail.com", "password"));
+    }
+
+    // The dispatcher stores batches on its own threads; a short pause keeps the activity timestamps apart
+    private void deliver(Notifications notification) throws InterruptedException {
+        long delivered = dispatcher.getStats().delivered();
+        dispatcher.dispatch(notification);
+        for (int i = 0; i < 100 && dispatcher.getStats().delivered() == delivered; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(dispatcher.getStats().delivered()).isGreaterThan(delivered);
+        Thread.sleep(10);
+    }
+}
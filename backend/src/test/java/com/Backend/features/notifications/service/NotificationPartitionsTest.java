@@ -0,0 +1,78 @@
+package com.Backend.features.notifications.service;
+
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationPartitionsTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private NotificationPartitions partitions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The conversion runs while the context starts, before anything is served
+    @Test
+    void tableIsPartitionedOnceTheContextIsUp() {
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid
+                 WHERE c.relname = 'notifications'
+                """, Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence('notifications', 'id')", String.class))
+                .endsWith("notifications_partitioned_id_seq");
+    }
+
+    @Test
+    void archivesExpiredPartitionAndDropsIt() {
+        long recipientId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        jdbcTemplate.execute("CREATE TABLE notifications_p201901 PARTITION OF notifications " +
+                "FOR VALUES FROM ('2019-01-01') TO ('2019-02-01')");
+        insert(recipientId, LocalDateTime.of(2019, 1, 15, 12, 0));
+
+        partitions.maintain();
+
+        assertThat(tableExists("notifications_p201901")).isFalse();
+        assertThat(archivedRows(recipientId, "2019-01-01")).isEqualTo(1);
+    }
+
+    @Test
+    void finishesPartitionLeftDetachedByAnEarlierRun() {
+        long recipientId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        jdbcTemplate.execute("CREATE TABLE notifications_p201902 PARTITION OF notifications " +
+                "FOR VALUES FROM ('2019-02-01') TO ('2019-03-01')");
+        insert(recipientId, LocalDateTime.of(2019, 2, 15, 12, 0));
+        jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION notifications_p201902");
+
+        partitions.maintain();
+
+        assertThat(tableExists("notifications_p201902")).isFalse();
+        assertThat(archivedRows(recipientId, "2019-02-01")).isEqualTo(1);
+    }
+
+    private void insert(long recipientId, LocalDateTime at) {
+        Timestamp timestamp = Timestamp.valueOf(at);
+        jdbcTemplate.update("""
+                INSERT INTO notifications (recipient_id, sender_id, is_read, type, resource_id, creation_date,
+                                           last_activity, window_start, actor_count, sample_actor_ids)
+                VALUES (?, NULL, true, 0, 1, ?, ?, ?, 1, NULL)
+                """, recipientId, timestamp, timestamp, timestamp);
+    }
+
+    private boolean tableExists(String name) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+    }
+
+    private int archivedRows(long recipientId, String month) {
+        return jdbcTemplate.queryForObject(
+                "SELECT jsonb_array_length(notifications) FROM notifications_archive WHERE recipient_id = ? AND month = ?::date",
+                Integer.class, recipientId, month);
+    }
+}
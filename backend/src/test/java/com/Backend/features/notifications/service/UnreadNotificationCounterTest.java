@@ -0,0 +1,61 @@
+package com.Backend.features.notifications.service;
+
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnreadNotificationCounterTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void seedsNewRecipientFromCountThenIncrements() {
+        long recipientId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+
+        insertUnread(recipientId, 2);
+        unreadCounter.added(Map.of(recipientId, 2));
+        assertThat(unreadCounter.get(recipientId)).isEqualTo(2);
+
+        insertUnread(recipientId, 3);
+        unreadCounter.added(Map.of(recipientId, 3));
+        assertThat(unreadCounter.get(recipientId)).isEqualTo(5);
+    }
+
+    @Test
+    void incrementsSeededAndNewRecipientsInOneCall() {
+        long seededId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        long newId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        insertUnread(seededId, 1);
+        assertThat(unreadCounter.get(seededId)).isEqualTo(1);
+
+        insertUnread(seededId, 4);
+        insertUnread(newId, 2);
+        unreadCounter.added(Map.of(seededId, 4, newId, 2));
+
+        assertThat(unreadCounter.get(seededId)).isEqualTo(5);
+        assertThat(unreadCounter.get(newId)).isEqualTo(2);
+    }
+
+    private void insertUnread(long recipientId, int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO notifications (recipient_id, sender_id, is_read, type, resource_id, creation_date,
+                                               window_start, actor_count, sample_actor_ids)
+                    VALUES (?, NULL, false, 0, ?, ?, ?, 1, NULL)
+                    """, recipientId, ThreadLocalRandom.current().nextLong(), now, now);
+        }
+    }
+}
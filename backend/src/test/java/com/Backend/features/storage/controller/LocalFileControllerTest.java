@@ -0,0 +1,126 @@
+package com.Backend.features.storage.controller;
+
+import com.Backend.features.storage.model.ImageType;
+import com.Backend.features.storage.service.LocalStorageBackend;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalFileControllerTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes();
+
+    @TempDir
+    private Path root;
+
+    private LocalFileController controller;
+    private String fileName;
+
+    @BeforeEach
+    void store() throws IOException {
+        LocalStorageBackend backend = new LocalStorageBackend(root.toString(), "/api/v1/storage/files");
+        Path upload = Files.write(Files.createTempFile("upload-", ".png"), CONTENT);
+        String url = backend.store(upload, "image", ImageType.PNG);
+        fileName = url.substring(url.lastIndexOf('/') + 1);
+        controller = new LocalFileController(backend);
+    }
+
+    @Test
+    void servesWholeFileWithValidators() throws IOException {
+        MockHttpServletResponse response = get(new MockHttpServletRequest());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+        assertThat(response.getContentType()).isEqualTo("image/png");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotBlank();
+        assertThat(response.getDateHeader(HttpHeaders.LAST_MODIFIED)).isPositive();
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+    }
+
+    @Test
+    void answersMatchingETagWithNotModified() throws IOException {
+        String etag = get(new MockHttpServletRequest()).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+
+    @Test
+    void answersUnchangedSinceLastModifiedWithNotModified() throws IOException {
+        long lastModified = get(new MockHttpServletRequest()).getDateHeader(HttpHeaders.LAST_MODIFIED);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+
+        assertThat(get(request).getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    void servesSingleRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 5-9/20");
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+    }
+
+    @Test
+    void servesSuffixRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=-4");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 16-19/20");
+        assertThat(response.getContentAsString()).isEqualTo("ghij");
+    }
+
+    @Test
+    void rejectsRangePastTheEnd() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=30-");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */20");
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeDoesNotMatch() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request) throws IOException {
+        request.setMethod("GET");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serveFile(fileName, request, response);
+        return response;
+    }
+}
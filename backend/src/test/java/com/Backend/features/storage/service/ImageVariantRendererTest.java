@@ -0,0 +1,157 @@
+package com.Backend.features.storage.service;
+
+import com.Backend.features.storage.model.ImageVariant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageVariantRendererTest {
+
+    private final ImageVariantRenderer renderer = new ImageVariantRenderer(1, 4, 1_000_000);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void shutdown() {
+        renderer.shutdown();
+    }
+
+    // A valid PNG header claiming 20000x20000 pixels, followed by no image data at all
+    @Test
+    void rejectsImageOverPixelBudgetBeforeDecoding() throws IOException {
+        ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(ihdr);
+        data.writeInt(20_000);
+        data.writeInt(20_000);
+        data.write(new byte[]{8, 6, 0, 0, 0});
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        png.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+        writeChunk(png, "IHDR", ihdr.toByteArray());
+        writeChunk(png, "IEND", new byte[0]);
+        Path image = Files.write(directory.resolve("huge.png"), png.toByteArray());
+
+        assertThatThrownBy(() -> renderer.render(image))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Image is too large");
+    }
+
+    @Test
+    void turnsJpegUprightByExifOrientation() throws IOException {
+        // 40 wide, 20 high, left half red; orientation 6 means it must be rotated 90 degrees clockwise
+        BufferedImage landscape = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 40; x++) {
+            for (int y = 0; y < 20; y++) {
+                landscape.setRGB(x, y, x < 20 ? Color.RED.getRGB() : Color.BLUE.getRGB());
+            }
+        }
+        Path image = directory.resolve("rotated.jpg");
+        Files.write(image, withExifOrientation(jpeg(landscape), 6));
+
+        Map<ImageVariant, Path> variants = renderer.render(image);
+        try {
+            BufferedImage full = ImageIO.read(variants.get(ImageVariant.FULL).toFile());
+            assertThat(full.getWidth()).isEqualTo(20);
+            assertThat(full.getHeight()).isEqualTo(40);
+            // The left edge ends up on top
+            assertThat(new Color(full.getRGB(10, 5)).getRed()).isGreaterThan(200);
+            assertThat(new Color(full.getRGB(10, 35)).getBlue()).isGreaterThan(200);
+        } finally {
+            for (Path variant : variants.values()) {
+                Files.deleteIfExists(variant);
+            }
+        }
+    }
+
+    @Test
+    void readsOrientationFromBothByteOrders() {
+        assertThat(ImageVariantRenderer.exifOrientation(exif(true, 8))).isEqualTo(8);
+        assertThat(ImageVariantRenderer.exifOrientation(exif(false, 3))).isEqualTo(3);
+        assertThat(ImageVariantRenderer.exifOrientation("Exif\0\0MM".getBytes(StandardCharsets.ISO_8859_1))).isZero();
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    // Inserts an APP1 segment right after the SOI marker
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) throws IOException {
+        byte[] exif = exif(false, orientation);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write((exif.length + 2) >> 8);
+        out.write((exif.length + 2) & 0xFF);
+        out.write(exif);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static byte[] exif(boolean littleEndian, int orientation) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("Exif\0\0".getBytes(StandardCharsets.ISO_8859_1));
+        out.writeBytes(littleEndian ? new byte[]{'I', 'I'} : new byte[]{'M', 'M'});
+        writeShort(out, 42, littleEndian);
+        writeInt(out, 8, littleEndian);
+        writeShort(out, 1, littleEndian);
+        // Orientation, SHORT, count 1, value left aligned in the 4 byte field
+        writeShort(out, 0x0112, littleEndian);
+        writeShort(out, 3, littleEndian);
+        writeInt(out, 1, littleEndian);
+        writeShort(out, orientation, littleEndian);
+        writeShort(out, 0, littleEndian);
+        writeInt(out, 0, littleEndian);
+        return out.toByteArray();
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value, boolean littleEndian) {
+        if (littleEndian) {
+            out.write(value & 0xFF);
+            out.write((value >> 8) & 0xFF);
+        } else {
+            out.write((value >> 8) & 0xFF);
+            out.write(value & 0xFF);
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value, boolean littleEndian) {
+        if (littleEndian) {
+            writeShort(out, value & 0xFFFF, true);
+            writeShort(out, value >>> 16, true);
+        } else {
+            writeShort(out, value >>> 16, false);
+            writeShort(out, value & 0xFFFF, false);
+        }
+    }
+
+    private static void writeChunk(ByteArrayOutputStream png, String type, byte[] data) throws IOException {
+        DataOutputStream out = new DataOutputStream(png);
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt((int) crc.getValue());
+    }
+}
@@ -0,0 +1,92 @@
+package com.Backend.features.storage.service;
+
+import com.Backend.features.storage.model.ImageVariants;
+import com.Backend.features.storage.model.StoredImageKind;
+import com.Backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "storage.backend=local",
+        "storage.local.root=${java.io.tmpdir}/speakly-test-uploads"
+})
+class StorageServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private StoredImageIndex storedImageIndex;
+
+    @Value("${storage.local.root}")
+    private Path root;
+
+    @Test
+    void sharesFilesOfIdenticalUploadsUntilLastReferenceIsDeleted() throws IOException {
+        MockMultipartFile upload = png();
+
+        String first = storageService.saveImage(upload);
+        String second = storageService.saveImage(upload);
+        assertThat(second).isEqualTo(first);
+
+        storageService.deleteFile(first);
+        assertThat(stored(first)).exists();
+        storageService.deleteFile(second);
+        assertThat(stored(first)).doesNotExist();
+    }
+
+    // The released files may still be on their way out, the re-upload must not land on the same name
+    @Test
+    void storesReuploadUnderNewName() throws IOException {
+        MockMultipartFile upload = png();
+
+        String first = storageService.saveImage(upload);
+        storageService.deleteFile(first);
+        String again = storageService.saveImage(upload);
+
+        assertThat(again).isNotEqualTo(first);
+        storageService.deleteFile(first);
+        assertThat(stored(again)).exists();
+    }
+
+    @Test
+    void returnsFilesOfFirstRegistrationToConcurrentUpload() {
+        String hash = UUID.randomUUID().toString().replace("-", "");
+        ImageVariants winner = new ImageVariants(null, null, "/files/" + hash + "-1.png");
+        ImageVariants loser = new ImageVariants(null, null, "/files/" + hash + "-2.png");
+
+        assertThat(storedImageIndex.register(hash, StoredImageKind.ORIGINAL, winner).getFullUrl()).isEqualTo(winner.getFullUrl());
+        assertThat(storedImageIndex.register(hash, StoredImageKind.ORIGINAL, loser).getFullUrl()).isEqualTo(winner.getFullUrl());
+    }
+
+    private Path stored(String url) {
+        return root.resolve(url.substring(url.lastIndexOf('/') + 1));
+    }
+
+    // Random pixels, so every test uploads content of its own
+    private static MockMultipartFile png() throws IOException {
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                image.setRGB(x, y, ThreadLocalRandom.current().nextInt());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return new MockMultipartFile("file", "image.png", "image/png", out.toByteArray());
+    }
+}
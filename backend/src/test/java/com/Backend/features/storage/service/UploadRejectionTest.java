@@ -0,0 +1,93 @@
+package com.Backend.features.storage.service;
+
+import com.Backend.features.storage.model.ImageType;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uploads that are not images or too large are turned away from their first bytes or their declared size, before
+ * the rest of the part is read, spooled or sent to the backend.
+ */
+class UploadRejectionTest {
+
+    private static final int UPLOAD_SIZE = 1024 * 1024;
+
+    private final StorageBackend storageBackend = mock(StorageBackend.class);
+    private final StoredImageIndex storedImageIndex = mock(StoredImageIndex.class);
+    private final ImageVariantRenderer imageVariantRenderer = mock(ImageVariantRenderer.class);
+    private final StorageService storageService = new StorageService(storageBackend, imageVariantRenderer, storedImageIndex);
+
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    @Test
+    void rejectsNonImageAfterReadingOnlyTheHeader() throws IOException {
+        byte[] pdf = new byte[UPLOAD_SIZE];
+        byte[] magic = "%PDF-1.7".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(magic, 0, pdf, 0, magic.length);
+        MultipartFile file = upload(pdf, pdf.length);
+
+        assertThatThrownBy(() -> storageService.saveImage(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File is not an image");
+        assertThatThrownBy(() -> storageService.saveImageVariants(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File is not an image");
+
+        assertThat(bytesRead.get()).isLessThanOrEqualTo(2L * ImageType.HEADER_LENGTH);
+        verify(file, never()).getBytes();
+        verifyNoInteractions(storageBackend, storedImageIndex, imageVariantRenderer);
+    }
+
+    @Test
+    void rejectsOversizedUploadWithoutReadingIt() throws IOException {
+        MultipartFile file = upload(new byte[16], 11L * 1024 * 1024);
+
+        assertThatThrownBy(() -> storageService.saveImage(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File is too large");
+
+        assertThat(bytesRead.get()).isZero();
+        verify(file, never()).getInputStream();
+        verifyNoInteractions(storageBackend, storedImageIndex, imageVariantRenderer);
+    }
+
+    // Every stream opened on the part counts the bytes taken from it
+    private MultipartFile upload(byte[] content, long declaredSize) throws IOException {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getSize()).thenReturn(declaredSize);
+        when(file.getInputStream()).thenAnswer(invocation -> new FilterInputStream(new ByteArrayInputStream(content)) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    bytesRead.incrementAndGet();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    bytesRead.addAndGet(n);
+                }
+                return n;
+            }
+        });
+        return file;
+    }
+}
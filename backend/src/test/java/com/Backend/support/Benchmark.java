@@ -0,0 +1,20 @@
+package com.Backend.support;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A measurement rather than a test: excluded from {@code ./gradlew test} and run with {@code ./gradlew benchmark}.
+ * Benchmarks log what they measured and only assert that the work was done, never how fast.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Tag("benchmark")
+@Test
+public @interface Benchmark {
+}
@@ -0,0 +1,57 @@
+package com.Backend.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots the application against a throwaway Postgres, the queries in this code base use Postgres only SQL.
+ * The container is shared by every test class extending this one; the rest of the environment gets dummy values.
+ */
+@SpringBootTest
+@Testcontainers
+public abstract class PostgresIntegrationTest {
+
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @DynamicPropertySource
+    static void environment(DynamicPropertyRegistry registry) {
+        properties().forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    /**
+     * The environment above as plain properties, for tests that start application contexts of their own.
+     */
+    public static Map<String, Object> properties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("DB_URL", POSTGRES.getJdbcUrl());
+        properties.put("DB_USERNAME", POSTGRES.getUsername());
+        properties.put("DB_PASSWORD", POSTGRES.getPassword());
+        properties.put("DB_DRIVER", POSTGRES.getDriverClassName());
+        properties.put("JWT_SECRET_KEY", "test-secret-key-test-secret-key-test-secret-key-0123456789");
+        properties.put("MAIL_HOST", "localhost");
+        properties.put("MAIL_PORT", "2525");
+        properties.put("MAIL_USERNAME", "test");
+        properties.put("MAIL_PASSWORD", "test");
+        properties.put("MAIL_OUTBOX_KEY", "test-outbox-key-test-outbox-key-0123456789");
+        properties.put("CLOUDINARY_CLOUD_NAME", "test");
+        properties.put("CLOUDINARY_API_KEY", "test");
+        properties.put("CLOUDINARY_API_SECRET", "test");
+        properties.put("OAUTH_GOOGLE_CLIENT_ID", "test");
+        properties.put("OAUTH_GOOGLE_CLIENT_SECRET", "test");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+        properties.put("spring.jpa.properties.hibernate.search.backend.directory.root",
+                System.getProperty("java.io.tmpdir") + "/speakly-test-lucene");
+        return properties;
+    }
+}
@@ -0,0 +1,66 @@
+package com.Backend.ws;
+
+import com.Backend.support.Benchmark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One session per user on its own notifications topic, as in production, plus a few pattern subscriptions.
+ * A send only looks at its own destination, so it stays cheap however many subscriptions there are.
+ * Logs microseconds per lookup.
+ */
+class IndexedSubscriptionRegistryBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexedSubscriptionRegistryBenchmark.class);
+
+    @Benchmark
+    void lookupCostWithFiftyThousandSubscriptions() {
+        IndexedSubscriptionRegistry registry = new IndexedSubscriptionRegistry();
+        int subscriptions = 50_000;
+        for (int user = 0; user < subscriptions; user++) {
+            registry.registerSubscription(subscribe("session-" + user, "/topic/users/" + user + "/notifications"));
+        }
+        for (int i = 0; i < 10; i++) {
+            registry.registerSubscription(subscribe("admin-" + i, "/topic/posts/*"));
+        }
+        List<Message<byte[]>> sends = new ArrayList<>();
+        for (int user = 0; user < subscriptions; user += 50) {
+            sends.add(send("/topic/users/" + user + "/notifications"));
+        }
+        sends.forEach(registry::findSubscriptions);
+
+        int lookups = 100_000;
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            found += registry.findSubscriptions(sends.get(i % sends.size())).size();
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / lookups;
+
+        log.info("Subscription lookup with {} subscriptions: {} us per send", subscriptions, String.format("%.2f", micros));
+        assertThat(found).isEqualTo(lookups);
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> send(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
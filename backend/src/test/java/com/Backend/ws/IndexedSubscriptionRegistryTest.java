@@ -0,0 +1,85 @@
+package com.Backend.ws;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedSubscriptionRegistryTest {
+
+    private final IndexedSubscriptionRegistry registry = new IndexedSubscriptionRegistry();
+
+    @Test
+    void findsExactAndPatternSubscribers() {
+        registry.registerSubscription(subscribe("s1", "sub1", "/topic/users/1/notifications"));
+        registry.registerSubscription(subscribe("s2", "sub1", "/topic/users/2/notifications"));
+        registry.registerSubscription(subscribe("s3", "sub1", "/topic/users/*/notifications"));
+
+        MultiValueMap<String, String> found = registry.findSubscriptions(send("/topic/users/1/notifications"));
+
+        assertThat(found).containsOnlyKeys("s1", "s3");
+        assertThat(found.get("s1")).containsExactly("sub1");
+        assertThat(registry.findSubscriptions(send("/topic/posts/1"))).isEmpty();
+    }
+
+    @Test
+    void sameSubscriptionIdReplacesTheDestination() {
+        registry.registerSubscription(subscribe("s1", "sub1", "/topic/users/1/notifications"));
+        registry.registerSubscription(subscribe("s1", "sub1", "/topic/users/2/notifications"));
+
+        assertThat(registry.findSubscriptions(send("/topic/users/1/notifications"))).isEmpty();
+        assertThat(registry.findSubscriptions(send("/topic/users/2/notifications"))).isEqualTo(Map.of("s1", List.of("sub1")));
+    }
+
+    @Test
+    void removesOneSubscription() {
+        registry.registerSubscription(subscribe("s1", "sub1", "/topic/users/1/notifications"));
+        registry.registerSubscription(subscribe("s1", "sub2", "/topic/users/*/notifications"));
+        registry.registerSubscription(subscribe("s2", "sub1", "/topic/users/1/notifications"));
+
+        registry.unregisterSubscription(unsubscribe("s1", "sub1"));
+        registry.unregisterSubscription(unsubscribe("s1", "sub2"));
+
+        assertThat(registry.findSubscriptions(send("/topic/users/1/notifications"))).isEqualTo(Map.of("s2", List.of("sub1")));
+    }
+
+    @Test
+    void disconnectRemovesEverySubscriptionOfTheSession() {
+        registry.registerSubscription(subscribe("s1", "sub1", "/topic/users/1/notifications"));
+        registry.registerSubscription(subscribe("s1", "sub2", "/topic/posts/**"));
+        registry.registerSubscription(subscribe("s2", "sub1", "/topic/posts/7"));
+
+        registry.unregisterAllSubscriptions("s1");
+
+        assertThat(registry.findSubscriptions(send("/topic/users/1/notifications"))).isEmpty();
+        assertThat(registry.findSubscriptions(send("/topic/posts/7"))).isEqualTo(Map.of("s2", List.of("sub1")));
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> unsubscribe(String sessionId, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> send(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,138 @@
+package com.Backend.ws;
+
+import com.Backend.BackendApplication;
+import com.Backend.features.authentication.model.User;
+import com.Backend.features.authentication.repository.UserRepository;
+import com.Backend.features.authentication.utils.JsonWebToken;
+import com.Backend.support.PostgresIntegrationTest;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Backend nodes in relay mode against the embedded Artemis of the first one, with STOMP clients connected over
+ * WebSocket as one user.
+ */
+class RelayNodes implements AutoCloseable {
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final List<StompSession> sessions = new ArrayList<>();
+    private final WebSocketStompClient stompClient;
+    private final ThreadPoolTaskScheduler receiptScheduler;
+    private final String token;
+
+    private RelayNodes(int count) throws Exception {
+        int brokerPort = freePort();
+        // Only the first node starts the broker, the others connect to it like to an external one
+        for (int node = 0; node < count; node++) {
+            Map<String, Object> properties = PostgresIntegrationTest.properties();
+            properties.put("server.port", "0");
+            properties.put("websocket.broker", "relay");
+            properties.put("websocket.relay.port", String.valueOf(brokerPort));
+            properties.put("websocket.relay.embedded", String.valueOf(node == 0));
+            properties.put("spring.jpa.properties.hibernate.search.backend.directory.root",
+                    System.getProperty("java.io.tmpdir") + "/speakly-test-lucene-node" + node);
+            nodes.add(new SpringApplicationBuilder(BackendApplication.class).properties(properties).run());
+        }
+        for (ConfigurableApplicationContext node : nodes) {
+            awaitBrokerAvailable(node);
+        }
+
+        User user = nodes.get(0).getBean(UserRepository.class).save(new User(UUID.randomUUID() + "@mail.com", "password"));
+        token = nodes.get(0).getBean(JsonWebToken.class).generateToken(user.getEmail());
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new StringMessageConverter());
+        // Tracks the subscription receipts
+        receiptScheduler = new ThreadPoolTaskScheduler();
+        receiptScheduler.initialize();
+        stompClient.setTaskScheduler(receiptScheduler);
+    }
+
+    static RelayNodes start(int count) throws Exception {
+        return new RelayNodes(count);
+    }
+
+    SimpMessagingTemplate messagingTemplate(int node) {
+        return nodes.get(node).getBean(SimpMessagingTemplate.class);
+    }
+
+    StompSession connect(int node) throws Exception {
+        int port = ((WebServerApplicationContext) nodes.get(node)).getWebServer().getPort();
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.add("Authorization", "Bearer " + token);
+        StompSession session = stompClient.connectAsync("ws://localhost:" + port + "/ws", headers, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+        sessions.add(session);
+        return session;
+    }
+
+    // Waits for the broker's receipt, frames sent before the subscription reached the broker would be lost
+    static void subscribe(StompSession session, String destination, Consumer<String> handler) throws InterruptedException {
+        CountDownLatch subscribed = new CountDownLatch(1);
+        session.setAutoReceipt(true);
+        StompSession.Subscription subscription = session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                handler.accept((String) payload);
+            }
+        });
+        subscription.addReceiptTask(subscribed::countDown);
+        assertThat(subscribed.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Override
+    public void close() {
+        sessions.forEach(StompSession::disconnect);
+        receiptScheduler.shutdown();
+        // The node running the broker goes last
+        for (int node = nodes.size() - 1; node >= 0; node--) {
+            nodes.get(node).close();
+        }
+    }
+
+    private static void awaitBrokerAvailable(ConfigurableApplicationContext node) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            if (node.getBeansOfType(AbstractBrokerMessageHandler.class).values().stream()
+                    .allMatch(AbstractBrokerMessageHandler::isBrokerAvailable)) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("The relay did not connect to the broker");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.Backend.ws;
+
+import com.Backend.support.Benchmark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every node has the same number of subscribers to one topic and sends its share of the frames, so each frame
+ * reaches every subscriber on every node. Logs deliveries/sec for 1, 2 and 4 nodes.
+ */
+class StompRelayFanOutBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(StompRelayFanOutBenchmark.class);
+    private static final int SUBSCRIBERS_PER_NODE = 5;
+
+    @Benchmark
+    void fanOutThroughput() throws Exception {
+        int frames = 2_000;
+        try (RelayNodes nodes = RelayNodes.start(4)) {
+            for (int nodeCount : new int[]{1, 2, 4}) {
+                String destination = "/topic/fan-out/" + UUID.randomUUID();
+                int deliveries = frames * nodeCount * SUBSCRIBERS_PER_NODE;
+                CountDownLatch delivered = new CountDownLatch(deliveries);
+                for (int node = 0; node < nodeCount; node++) {
+                    for (int i = 0; i < SUBSCRIBERS_PER_NODE; i++) {
+                        RelayNodes.subscribe(nodes.connect(node), destination, payload -> delivered.countDown());
+                    }
+                }
+
+                long start = System.nanoTime();
+                for (int frame = 0; frame < frames; frame++) {
+                    nodes.messagingTemplate(frame % nodeCount).convertAndSend(destination, "frame " + frame);
+                }
+                assertThat(delivered.await(60, TimeUnit.SECONDS)).isTrue();
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                log.info("Fan-out over the relay with {} node(s), {} subscribers each: {} frames, {} deliveries/sec",
+                        nodeCount, SUBSCRIBERS_PER_NODE, frames, String.format("%.0f", deliveries / seconds));
+            }
+        }
+    }
+}
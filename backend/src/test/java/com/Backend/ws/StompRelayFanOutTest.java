@@ -0,0 +1,42 @@
+package com.Backend.ws;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two backend nodes in relay mode against the embedded Artemis of the first one, and sends on one node to a
+ * subscriber on the other.
+ */
+class StompRelayFanOutTest {
+
+    private static RelayNodes nodes;
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        nodes = RelayNodes.start(2);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.close();
+    }
+
+    @Test
+    void deliversFrameSentOnOneNodeToSubscriberOnAnother() throws Exception {
+        String destination = "/topic/users/" + UUID.randomUUID() + "/notifications";
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        RelayNodes.subscribe(nodes.connect(1), destination, received::add);
+
+        nodes.messagingTemplate(0).convertAndSend(destination, "hello");
+
+        assertThat(received.poll(10, TimeUnit.SECONDS)).isEqualTo("hello");
+    }
+}
@@ -103,9 +103,15 @@ export function Post({ post, setPosts }: PostProps) {
     const subscription = webSocketClient?.subscribe(
       `/topic/likes/${post.id}`,
       (message) => {
-        const likes = JSON.parse(message.body);
-        setLikes(likes);
-        setPostLiked(likes.some((like: User) => like.id === user?.id));
+        // Only the user who liked or unliked is sent, not the whole likes list
+        const event: { user: User; liked: boolean } = JSON.parse(message.body);
+        setLikes((prev) => {
+          const others = prev.filter((like) => like.id !== event.user.id);
+          return event.liked ? [...others, event.user] : others;
+        });
+        if (event.user.id === user?.id) {
+          setPostLiked(event.liked);
+        }
       }
     );
     return () => subscription?.unsubscribe();